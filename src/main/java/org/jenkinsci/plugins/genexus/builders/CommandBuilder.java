@@ -33,6 +33,7 @@ import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.util.ArgumentListBuilder;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,12 +55,22 @@ public class CommandBuilder {
 
     public boolean perform(Run<?, ?> build, FilePath workspace,
             Launcher launcher, TaskListener listener) throws InterruptedException {
+        return perform(build, workspace, launcher, listener, listener.getLogger());
+    }
+
+    /**
+     * Same as {@link #perform(Run, FilePath, Launcher, TaskListener)} but
+     * sending the process output to the given stream, so that callers can
+     * inspect it on its way to the build log.
+     */
+    public boolean perform(Run<?, ?> build, FilePath workspace,
+            Launcher launcher, TaskListener listener, OutputStream stdout) throws InterruptedException {
         int r = -1;
 
         try {
             EnvVars envVars = build.getEnvironment(listener);
             LOGGER.log(Level.FINE, "Executing command {0}", args.toString());
-            r = join(launcher.launch().cmds(args).envs(envVars).stdout(listener)
+            r = join(launcher.launch().cmds(args).envs(envVars).stdout(stdout)
                     .pwd(workspace).start());
         } catch (IOException e) {
             Util.displayIOException(e, listener);
@@ -143,7 +143,8 @@ public class GeneXusBuilder extends Builder {
             argsHelper.addProperty("GX_PROGRAM_DIR", gxHome);
         }
 
-        argsHelper.addProperty("WorkingDirectory", kbPath);
+        // kbPath may refer to build variables such as GX_KB_PATH
+        argsHelper.addProperty("WorkingDirectory", build.getEnvironment(listener).expand(kbPath));
         argsHelper.addProperty("WorkingVersion", kbVersion);
         argsHelper.addProperty("WorkingEnvironment", kbEnvironment);
         argsHelper.addProperty("ForceRebuild", forceRebuild);
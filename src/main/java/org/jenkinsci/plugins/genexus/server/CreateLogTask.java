@@ -24,9 +24,6 @@
 package org.jenkinsci.plugins.genexus.server;
 
 import com.genexus.gxserver.client.clients.RevisionsQuery;
-import com.genexus.gxserver.client.clients.TeamWorkService2Client;
-import com.genexus.gxserver.client.info.ActionInfo;
-import com.genexus.gxserver.client.info.RevisionInfo;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.model.TaskListener;
 import java.io.File;
@@ -48,6 +45,19 @@ public class CreateLogTask {
     private static final long serialVersionUID = 2L;
     private static final Logger LOGGER = Logger.getLogger(CreateLogTask.class.getName());
 
+    /**
+     * Number of concurrent queries used to fetch long date ranges. The
+     * default of 1 keeps a single query over the whole range.
+     */
+    static final int PARALLELISM = Integer.getInteger(CreateLogTask.class.getName() + ".parallelism", 1);
+
+    /**
+     * Number of revisions (with their actions) retrieved by a background
+     * thread ahead of the revision being written. The default of 0
+     * retrieves them one at a time, as they are written.
+     */
+    static final int ACTION_PREFETCH = Integer.getInteger(CreateLogTask.class.getName() + ".actionPrefetch", 0);
+
     private final TaskListener listener;
     private final GXSConnection gxsConnection;
     private final File logFile;
@@ -82,15 +92,16 @@ public class CreateLogTask {
         listener.getLogger().println("Checking GeneXus Server history");
 
         boolean success;
-        try {
-            TeamWorkService2Client twClient = new TeamWorkService2Client(
-                    gxsConnection.getServerURL(),
-                    gxsConnection.getUserName(),
-                    gxsConnection.getUserPassword()
-            );
-
-            RevisionsQuery query = new RevisionsQuery(twClient, gxsConnection.getKbName(), gxsConnection.getKbVersion(), actualFromTimestamp(), toTimestamp);
-            success = writeLog(logFile, query);
+        try (GXSClientPool.Lease lease = GXSClientPool.get().acquire(gxsConnection)) {
+            boolean succeeded = false;
+            try {
+                success = writeLog(lease);
+                succeeded = true;
+            } finally {
+                if (!succeeded) {
+                    lease.invalidate();
+                }
+            }
         } catch (RuntimeException e) {
             listener.getLogger().println("Error checking history: " + e.getMessage());
             success = false;
@@ -99,6 +110,45 @@ public class CreateLogTask {
         return success;
     }
 
+    /**
+     * Writes the log from the local history store if possible, otherwise
+     * querying GXserver (in parallel for long ranges, if so configured).
+     */
+    private boolean writeLog(GXSClientPool.Lease lease) throws IOException, InterruptedException {
+        GXSFetchStats stats = new GXSFetchStats();
+        try {
+            return writeLog(lease, stats);
+        } finally {
+            listener.getLogger().println(stats);
+        }
+    }
+
+    private boolean writeLog(GXSClientPool.Lease lease, GXSFetchStats stats) throws IOException, InterruptedException {
+        Date from = actualFromTimestamp();
+        GXSHistoryStore store = GXSHistoryStore.forConnection(gxsConnection);
+        if (store != null && from != null && toTimestamp != null
+                && store.update(lease.getClient(), gxsConnection, from, toTimestamp, listener, stats)) {
+            listener.getLogger().println("Using local GXserver history");
+            return writeLog(logFile, store.getRevisions(from, toTimestamp));
+        }
+
+        if (PARALLELISM > 1 && from != null && toTimestamp != null
+                && GXSParallelRevisionsQuery.isWorthSplitting(from, toTimestamp)) {
+            listener.getLogger().println("Fetching GXserver history with " + PARALLELISM + " concurrent queries");
+            try (GXSParallelRevisionsQuery query = new GXSParallelRevisionsQuery(gxsConnection, from, toTimestamp, PARALLELISM, stats)) {
+                return writeLog(logFile, query);
+            }
+        }
+
+        RevisionsQuery query = new RevisionsQuery(lease.getClient(), gxsConnection.getKbName(), gxsConnection.getKbVersion(), from, toTimestamp);
+        stats.queryIssued();
+        // a background fetch takes one of the server's call slots
+        GXSCallExecutor.Permit permit = ACTION_PREFETCH > 0 ? GXSCallExecutor.get().acquire(gxsConnection.getServerURL()) : null;
+        try (GXSActionPrefetcher revisions = new GXSActionPrefetcher(query, ACTION_PREFETCH, stats, lease, permit)) {
+            return writeLog(logFile, revisions);
+        }
+    }
+
     private Date actualFromTimestamp() {
         if (!fromExcluding) {
             return fromTimestamp;
@@ -112,14 +162,14 @@ public class CreateLogTask {
             value = {"RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE", "REC_CATCH_EXCEPTION"},
             justification = "False positives for try-with-resources"
     )
-    private boolean writeLog(File file, Iterable<RevisionInfo> revisions) throws IOException {
+    private boolean writeLog(File file, Iterable<GXSHistoryRecord> revisions) throws IOException {
         try (
                 OutputStream stream = new FileOutputStream(file);
                 XMLStreamWriterEx xmlWriter = XMLStreamWriterEx.newInstance(stream)) {
 
             try (AutoCloseable docTag = xmlWriter.startDocument()) {
                 try (AutoCloseable logTag = xmlWriter.startElement("log")) {
-                    for (RevisionInfo revision : revisions) {
+                    for (GXSHistoryRecord revision : revisions) {
                         writeRevision(xmlWriter, revision);
                     }
                 }
@@ -136,7 +186,7 @@ public class CreateLogTask {
             value = {"RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE"},
             justification = "False positives for try-with-resources"
     )
-    private void writeRevision(XMLStreamWriterEx xmlWriter, RevisionInfo revision) throws Exception {
+    private void writeRevision(XMLStreamWriterEx xmlWriter, GXSHistoryRecord revision) throws Exception {
         try (AutoCloseable logEntryTag = xmlWriter.startElement("logentry")) {
             xmlWriter.writeAttribute("revision", Integer.toString(revision.id));
             xmlWriter.writeSimpleElement("author", revision.author);
@@ -152,14 +202,14 @@ public class CreateLogTask {
             value = {"RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE"},
             justification = "False positives for try-with-resources"
     )
-    private void writeActions(XMLStreamWriterEx xmlWriter, RevisionInfo revision) throws Exception {
+    private void writeActions(XMLStreamWriterEx xmlWriter, GXSHistoryRecord revision) throws Exception {
         try (AutoCloseable actions = xmlWriter.startElement("actions")) {
-            for (ActionInfo action : revision.getActions()) {
+            for (GXSHistoryRecord.Action action : revision.actions) {
                 try (AutoCloseable actionTag = xmlWriter.startElement("action")) {
-                    xmlWriter.writeAttribute("type", action.actionType.toString());
-                    xmlWriter.writeSimpleElement("objectGuid", action.objectGuid.toString());
+                    xmlWriter.writeAttribute("type", action.type);
+                    xmlWriter.writeSimpleElement("objectGuid", action.objectGuid);
                     xmlWriter.writeSimpleElement("objectType", action.objectType);
-                    xmlWriter.writeSimpleElement("objectTypeGuid", action.getObjectTypeGuid().toString());
+                    xmlWriter.writeSimpleElement("objectTypeGuid", action.objectTypeGuid);
                     xmlWriter.writeSimpleElement("objectName", action.objectName);
                     xmlWriter.writeSimpleElement("objectDescription", action.objectDescription);
                 }
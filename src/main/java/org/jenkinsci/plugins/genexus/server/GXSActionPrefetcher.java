@@ -0,0 +1,268 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.genexus.gxserver.client.info.RevisionInfo;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Turns revisions from a query into {@link GXSHistoryRecord}s, retrieving
+ * the revisions and their actions ahead of the ones being consumed.
+ * <p>
+ * A GXserver client must not be used by two threads at once, and the
+ * actions of a revision are retrieved through the client of the query that
+ * returned it. So with a prefetch above 0, the query is iterated and the
+ * actions are retrieved by a single background thread, up to that many
+ * revisions ahead of the caller; otherwise everything happens on the
+ * caller's thread, one revision at a time, as it is needed.
+ * <p>
+ * The call slot of the server given when created (if any) is held until the
+ * background thread ends, so background fetches count towards the
+ * {@link GXSCallExecutor} per server limit.
+ * <p>
+ * Closing waits at most {@link #STOP_TIMEOUT_SECONDS} for the background
+ * thread, which may be blocked in a GXserver call. After that, or as soon as
+ * the closing thread is interrupted, the background thread is abandoned and
+ * the client lease given when created is invalidated, since the client is
+ * still in use.
+ *
+ * @author jlr
+ */
+final class GXSActionPrefetcher implements Iterable<GXSHistoryRecord>, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(GXSActionPrefetcher.class.getName());
+
+    /**
+     * Time (in seconds) to wait for the background thread when closing.
+     */
+    static final long STOP_TIMEOUT_SECONDS = Long.getLong(GXSActionPrefetcher.class.getName() + ".stopTimeout", 10);
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(
+            new NamingThreadFactory(new DaemonThreadFactory(), "GXserver action fetch"));
+
+    private final Iterable<RevisionInfo> revisions;
+    private final int prefetch;
+    private final GXSFetchStats stats;
+    private final GXSClientPool.Lease lease;
+    private final GXSCallExecutor.Permit permit;
+    private PrefetchingIterator prefetching;
+
+    GXSActionPrefetcher(Iterable<RevisionInfo> revisions, int prefetch, GXSFetchStats stats) {
+        this(revisions, prefetch, stats, null, null);
+    }
+
+    /**
+     * @param revisions revisions to fetch
+     * @param prefetch number of revisions fetched ahead (0 for none)
+     * @param stats counters of the GXserver calls made
+     * @param lease lease on the client used by the revisions (may be null)
+     * @param permit call slot held while fetching (may be null)
+     */
+    GXSActionPrefetcher(Iterable<RevisionInfo> revisions, int prefetch, GXSFetchStats stats, GXSClientPool.Lease lease, GXSCallExecutor.Permit permit) {
+        this.revisions = revisions;
+        this.prefetch = prefetch;
+        this.stats = stats;
+        this.lease = lease;
+        this.permit = permit;
+    }
+
+    @Override
+    public synchronized Iterator<GXSHistoryRecord> iterator() {
+        if (prefetch <= 0) {
+            Iterator<RevisionInfo> it = revisions.iterator();
+            return new Iterator<GXSHistoryRecord>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public GXSHistoryRecord next() {
+                    return GXSHistoryRecord.from(it.next(), stats);
+                }
+            };
+        }
+
+        if (prefetching != null) {
+            throw new IllegalStateException("Revisions can only be iterated once");
+        }
+
+        prefetching = new PrefetchingIterator(prefetch);
+        EXECUTOR.execute(prefetching::fetch);
+        return prefetching;
+    }
+
+    /**
+     * Stops the background thread and waits for it to end, so that the
+     * client can be used again by someone else once this returns. If it
+     * doesn't end in time the lease is invalidated instead.
+     */
+    @Override
+    public synchronized void close() {
+        if (prefetching == null) {
+            releasePermit();
+            return;
+        }
+
+        if (!prefetching.stop()) {
+            LOGGER.log(Level.WARNING, "GXserver action fetch did not stop, abandoning it");
+            if (lease != null) {
+                lease.invalidate();
+            }
+        }
+    }
+
+    private void releasePermit() {
+        if (permit != null) {
+            permit.close();
+        }
+    }
+
+    private final class PrefetchingIterator implements Iterator<GXSHistoryRecord> {
+
+        /**
+         * Marks the end of the revisions in the queue.
+         */
+        private final GXSHistoryRecord end = new GXSHistoryRecord();
+
+        private final BlockingQueue<GXSHistoryRecord> queue;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile RuntimeException failure;
+        private GXSHistoryRecord nextRecord;
+
+        /**
+         * @GuardedBy this
+         */
+        private Thread thread;
+
+        /**
+         * @GuardedBy this
+         */
+        private boolean stopped;
+
+        PrefetchingIterator(int prefetch) {
+            this.queue = new ArrayBlockingQueue<>(prefetch);
+        }
+
+        /**
+         * Runs on the background thread, the only one using the client.
+         */
+        private void fetch() {
+            synchronized (this) {
+                if (stopped) {
+                    releasePermit();
+                    done.countDown();
+                    return;
+                }
+                thread = Thread.currentThread();
+            }
+
+            try {
+                try {
+                    for (RevisionInfo revision : revisions) {
+                        queue.put(GXSHistoryRecord.from(revision, stats));
+                    }
+                } catch (RuntimeException ex) {
+                    failure = ex;
+                }
+                queue.put(end);
+            } catch (InterruptedException ex) {
+                // stopped
+            } finally {
+                synchronized (this) {
+                    thread = null;
+                    // don't leave the pool thread interrupted
+                    Thread.interrupted();
+                }
+                releasePermit();
+                done.countDown();
+            }
+        }
+
+        /**
+         * Interrupts the background thread and waits a while for it to end.
+         * An interrupt of the calling thread ends the wait and is kept.
+         *
+         * @return false if the thread was abandoned
+         */
+        private boolean stop() {
+            synchronized (this) {
+                stopped = true;
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+
+            try {
+                return done.await(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return done.getCount() == 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextRecord == null) {
+                try {
+                    nextRecord = queue.take();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while fetching GeneXus Server actions", ex);
+                }
+            }
+
+            if (nextRecord == end) {
+                // leave the marker in place for later calls
+                if (failure != null) {
+                    throw new IllegalStateException("Error fetching GeneXus Server actions", failure);
+                }
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public GXSHistoryRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            GXSHistoryRecord record = nextRecord;
+            nextRecord = null;
+            return record;
+        }
+    }
+}
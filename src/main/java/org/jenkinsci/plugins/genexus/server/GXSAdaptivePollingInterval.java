@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Learns how often a KB version gets commits and derives from it how often
+ * its head revision should be queried.
+ * <p>
+ * Each head revision obtained by polling is fed to {@link #observe}. When
+ * the head moves, the average time between revisions is folded into an
+ * exponentially weighted moving average. The interval is a fraction of the
+ * expected time to the next commit (a blend of that average and the time
+ * elapsed since the last commit), bounded by {@link #MIN_INTERVAL_SECONDS}
+ * and {@link #MAX_INTERVAL_SECONDS}. Busy versions are thus queried at the
+ * minimum interval while frozen release versions back off to the maximum.
+ * <p>
+ * Disabled unless the {@code enabled} system property is set, in which case
+ * the fixed {@link GXSPollingCoordinator#REFRESH_INTERVAL_SECONDS} is used.
+ *
+ * @author jlr
+ */
+final class GXSAdaptivePollingInterval {
+
+    static final boolean ENABLED = Boolean.getBoolean(GXSAdaptivePollingInterval.class.getName() + ".enabled");
+
+    static final long MIN_INTERVAL_SECONDS = Long.getLong(GXSAdaptivePollingInterval.class.getName() + ".minInterval", GXSPollingCoordinator.REFRESH_INTERVAL_SECONDS);
+
+    static final long MAX_INTERVAL_SECONDS = Long.getLong(GXSAdaptivePollingInterval.class.getName() + ".maxInterval", 60 * 60);
+
+    /**
+     * Weight of the newest sample in the moving average.
+     */
+    private static final double ALPHA = 0.3;
+
+    /**
+     * Fraction of the expected time to the next commit used as interval.
+     */
+    private static final int DIVISOR = 4;
+
+    private long lastRevision = -1;
+    private long lastCommitTime;
+    private double averageGapMillis;
+
+    /**
+     * Records a head revision obtained from GXserver.
+     *
+     * @param info head revision
+     */
+    synchronized void observe(GXSInfo info) {
+        long commitTime = info.revisionDate.getTime();
+        if (lastRevision >= 0 && info.revision > lastRevision && commitTime > lastCommitTime) {
+            double sample = (double) (commitTime - lastCommitTime) / (info.revision - lastRevision);
+            averageGapMillis = averageGapMillis == 0 ? sample : ALPHA * sample + (1 - ALPHA) * averageGapMillis;
+        }
+
+        lastRevision = info.revision;
+        lastCommitTime = commitTime;
+    }
+
+    /**
+     * @param now current time in milliseconds
+     * @return time (in milliseconds) a head revision remains fresh
+     */
+    synchronized long getIntervalMillis(long now) {
+        long min = TimeUnit.SECONDS.toMillis(MIN_INTERVAL_SECONDS);
+        long max = Math.max(min, TimeUnit.SECONDS.toMillis(MAX_INTERVAL_SECONDS));
+        if (lastRevision < 0) {
+            return min;
+        }
+
+        double idle = Math.max(0, now - lastCommitTime);
+        double expectedGap = averageGapMillis > 0 ? (averageGapMillis + idle) / 2 : idle;
+        long interval = (long) (expectedGap / DIVISOR);
+        return Math.max(min, Math.min(max, interval));
+    }
+}
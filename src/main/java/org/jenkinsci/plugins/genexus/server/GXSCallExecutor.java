@@ -0,0 +1,307 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs GXserver calls on a dedicated, bounded thread pool.
+ * <p>
+ * A call is limited to {@link #MAX_CALLS_PER_SERVER} concurrent executions
+ * per server and must complete within {@link #CALL_TIMEOUT_SECONDS},
+ * counted from the moment it is requested (waiting for a slot included).
+ * When the deadline passes the call is cancelled and the caller gets an
+ * {@link IOException}, so a slow or hung GXserver cannot hold Jenkins SCM
+ * polling threads indefinitely.
+ * <p>
+ * Clients get connect and read timeouts from {@link GXSClientPool}, so a
+ * hung call ends on its own. Cancelling can't interrupt a blocked socket
+ * read, though, so a call that times out keeps its slot until its thread
+ * really returns, and the pool gets an extra thread for as long as it is
+ * stuck: a hung server then only delays the calls to that same server.
+ * <p>
+ * Longer work that runs on its own threads (such as fetching the history of
+ * a changelog) takes a {@link Permit} instead, which counts towards the same
+ * per server limit but has no deadline.
+ *
+ * @author jlr
+ */
+public final class GXSCallExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(GXSCallExecutor.class.getName());
+
+    /**
+     * Number of threads running GXserver calls.
+     */
+    static final int POOL_SIZE = Integer.getInteger(GXSCallExecutor.class.getName() + ".poolSize", 8);
+
+    /**
+     * Maximum number of calls waiting for a thread.
+     */
+    static final int QUEUE_CAPACITY = Integer.getInteger(GXSCallExecutor.class.getName() + ".queueCapacity", 100);
+
+    /**
+     * Maximum number of calls running at the same time against one server.
+     */
+    static final int MAX_CALLS_PER_SERVER = Integer.getInteger(GXSCallExecutor.class.getName() + ".maxCallsPerServer", 2);
+
+    /**
+     * Time (in seconds) a call may take, including time spent waiting.
+     */
+    static final long CALL_TIMEOUT_SECONDS = Long.getLong(GXSCallExecutor.class.getName() + ".timeout", 120);
+
+    // states of a submitted call
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+    private static final int ABANDONED = 3;
+
+    private static final GXSCallExecutor INSTANCE = new GXSCallExecutor();
+
+    private final ThreadPoolExecutor executor;
+    private int abandoned;
+    private final ConcurrentMap<String, ServerSlots> servers = new ConcurrentHashMap<>();
+
+    private GXSCallExecutor() {
+        executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+                new NamingThreadFactory(new DaemonThreadFactory(), "GXserver call"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static GXSCallExecutor get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs a call against a server and waits for its result.
+     *
+     * @param <T> type of the result
+     * @param serverURL URL of the GeneXus Server being called
+     * @param description short description used in error messages
+     * @param call the call
+     * @return the value returned by the call
+     * @throws IOException if the call fails, times out or cannot be queued
+     * @throws InterruptedException if interrupted while waiting (the call is
+     * cancelled)
+     */
+    public <T> T call(String serverURL, String description, Callable<T> call) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CALL_TIMEOUT_SECONDS);
+        ServerSlots slots = getSlots(serverURL);
+
+        slots.waiting.incrementAndGet();
+        try {
+            if (!slots.permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new IOException(description + ": timed out after " + CALL_TIMEOUT_SECONDS
+                        + "s waiting for one of the " + MAX_CALLS_PER_SERVER + " call slots of GXserver " + serverURL);
+            }
+        } finally {
+            slots.waiting.decrementAndGet();
+        }
+
+        // The slot is released by the call itself once it finishes, even if
+        // the caller gave up on it, or by the caller if it never started.
+        Permit permit = new Permit(slots);
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!state.compareAndSet(QUEUED, RUNNING)) {
+                    return null;
+                }
+                try {
+                    return call.call();
+                } finally {
+                    permit.close();
+                    if (!state.compareAndSet(RUNNING, DONE)) {
+                        returned();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            permit.close();
+            throw new IOException(description + ": too many pending GXserver calls", ex);
+        }
+
+        try {
+            return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            cancel(future, permit, state);
+            LOGGER.log(Level.WARNING, "{0}: GXserver {1} did not answer in {2}s, the call is cancelled",
+                    new Object[]{description, serverURL, CALL_TIMEOUT_SECONDS});
+            throw new IOException(description + ": timed out after " + CALL_TIMEOUT_SECONDS + "s", ex);
+        } catch (InterruptedException ex) {
+            cancel(future, permit, state);
+            throw ex;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(description + " failed", cause);
+        }
+    }
+
+    /**
+     * Takes one of the call slots of a server, waiting as long as needed.
+     * The slot is held until the permit is closed.
+     *
+     * @param serverURL URL of the GeneXus Server being called
+     * @return the permit
+     * @throws InterruptedException if interrupted while waiting
+     */
+    Permit acquire(String serverURL) throws InterruptedException {
+        ServerSlots slots = getSlots(serverURL);
+        slots.waiting.incrementAndGet();
+        try {
+            slots.permits.acquire();
+        } finally {
+            slots.waiting.decrementAndGet();
+        }
+        return new Permit(slots);
+    }
+
+    /**
+     * Takes one of the call slots of a server if one is free.
+     *
+     * @param serverURL URL of the GeneXus Server being called
+     * @return the permit, or null if every slot is taken
+     */
+    Permit tryAcquire(String serverURL) {
+        ServerSlots slots = getSlots(serverURL);
+        return slots.permits.tryAcquire() ? new Permit(slots) : null;
+    }
+
+    private ServerSlots getSlots(String serverURL) {
+        return servers.computeIfAbsent(serverURL, k -> new ServerSlots());
+    }
+
+    /**
+     * Cancels a call. If its thread is still running (blocked in a socket
+     * read, for instance) another one is added to the pool until it returns.
+     */
+    private synchronized void cancel(Future<?> future, Permit permit, AtomicInteger state) {
+        future.cancel(true);
+        if (state.compareAndSet(QUEUED, DONE)) {
+            permit.close();
+        } else if (state.compareAndSet(RUNNING, ABANDONED)) {
+            abandoned++;
+            executor.setMaximumPoolSize(POOL_SIZE + abandoned);
+            executor.setCorePoolSize(POOL_SIZE + abandoned);
+        }
+    }
+
+    /**
+     * Called when the thread of a cancelled call finally returns.
+     */
+    private synchronized void returned() {
+        abandoned--;
+        executor.setCorePoolSize(POOL_SIZE + abandoned);
+        executor.setMaximumPoolSize(POOL_SIZE + abandoned);
+    }
+
+    /**
+     * @return number of calls waiting for a thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return number of calls currently running
+     */
+    public int getInFlight() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @param serverURL URL of a GeneXus Server
+     * @return number of calls currently running against that server
+     */
+    public int getInFlight(String serverURL) {
+        ServerSlots slots = servers.get(serverURL);
+        return slots != null ? MAX_CALLS_PER_SERVER - slots.permits.availablePermits() : 0;
+    }
+
+    /**
+     * @param serverURL URL of a GeneXus Server
+     * @return number of callers waiting for a free slot on that server
+     */
+    public int getWaiting(String serverURL) {
+        ServerSlots slots = servers.get(serverURL);
+        return slots != null ? slots.waiting.get() : 0;
+    }
+
+    /**
+     * A call slot of a server, taken for as long as it is open.
+     */
+    static final class Permit implements AutoCloseable {
+
+        private final ServerSlots slots;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(ServerSlots slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                slots.permits.release();
+            }
+        }
+    }
+
+    private static final class ServerSlots {
+
+        private final Semaphore permits = new Semaphore(MAX_CALLS_PER_SERVER);
+        private final AtomicInteger waiting = new AtomicInteger();
+    }
+}
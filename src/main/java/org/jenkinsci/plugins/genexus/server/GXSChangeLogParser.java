@@ -26,20 +26,30 @@ package org.jenkinsci.plugins.genexus.server;
 import hudson.model.Run;
 import hudson.scm.ChangeLogParser;
 import hudson.scm.RepositoryBrowser;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import javax.xml.parsers.ParserConfigurationException;
-import org.apache.commons.digester3.Digester;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.jenkinsci.plugins.genexus.server.GXSChangeLogSet.Action;
 import org.jenkinsci.plugins.genexus.server.GXSChangeLogSet.LogEntry;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
+ * Reads the changelog written by {@link CreateLogTask}.
+ * <p>
+ * The file is read with a StAX pull parser that fills {@link LogEntry} and
+ * {@link Action} instances directly. DTDs and external entities are rejected
+ * unless the {@code UNSAFE} system property is set.
  *
  * @author jlr
  */
@@ -48,34 +58,48 @@ public class GXSChangeLogParser extends ChangeLogParser {
     public GXSChangeLogParser() {
     }
 
+    /**
+     * Changelog files larger than this (in bytes) are read lazily.
+     */
+    static final long LAZY_THRESHOLD = Long.getLong(GXSChangeLogParser.class.getName() + ".lazyThreshold", 4 * 1024 * 1024);
+
     @SuppressWarnings("unchecked")
     @Override
     public GXSChangeLogSet parse(@SuppressWarnings("rawtypes") Run build, RepositoryBrowser<?> browser, File changelogFile) throws IOException, SAXException {
+        if (changelogFile.length() > LAZY_THRESHOLD) {
+            List<Long> pageOffsets = new ArrayList<>();
+            int size = countEntries(changelogFile, GXSChangeLogSet.PAGE_SIZE, pageOffsets);
+            if (size >= 0) {
+                return new GXSChangeLogSet(build, browser, changelogFile, size, pageOffsets);
+            }
+        }
+
         List<LogEntry> logs = parse(changelogFile);
         return new GXSChangeLogSet(build, browser, logs);
     }
 
     public static List<LogEntry> parse(File changelogFile) throws IOException {
         try (InputStream stream = new FileInputStream(changelogFile)) {
-            InputSource source = new InputSource(stream);
-            source.setSystemId(changelogFile.toURI().toURL().toString());
-            return parse(source);
+            return parse(stream, changelogFile.toURI().toURL().toString());
         }
     }
 
     public static List<LogEntry> parse(InputStream stream) throws IOException {
-        InputSource source = new InputSource(stream);
-        return parse(source);
+        return parse(stream, null);
     }
 
-    private static List<LogEntry> parse(InputSource source) throws IOException {
+    private static List<LogEntry> parse(InputStream stream, String systemId) throws IOException {
         ArrayList<LogEntry> logs = new ArrayList<>();
 
         try {
-            Digester digester = createDigester(logs);
-            digester.parse(source);
-        } catch (IOException | SAXException e) {
-            String sourceId = source.getSystemId() != null ? source.getSystemId() : "";
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(systemId, stream);
+            try {
+                readLog(reader, logs);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | RuntimeException e) {
+            String sourceId = systemId != null ? systemId : "";
             throw new IOException("Failed to parse " + sourceId, e);
         }
 
@@ -84,46 +108,300 @@ public class GXSChangeLogParser extends ChangeLogParser {
         return logs;
     }
 
-    private static Digester createDigester(boolean secure) throws SAXException {
-        Digester digester = new Digester();
-        if (secure) {
-            digester.setXIncludeAware(false);
+    /**
+     * Counts the entries of a changelog without building them. Entries are
+     * expected newest first (as written by {@link CreateLogTask}); entries
+     * not older than the previous one are duplicates and aren't counted.
+     *
+     * @param changelogFile changelog file
+     * @return number of distinct entries, or -1 if the entries are not in
+     * descending revision order
+     * @throws IOException if the file cannot be read
+     */
+    static int countEntries(File changelogFile) throws IOException {
+        return countEntries(changelogFile, Integer.MAX_VALUE, new ArrayList<>());
+    }
+
+    /**
+     * Counts the entries of a changelog and finds where each page of them
+     * starts, so that pages can be read without parsing the file from the
+     * start (see {@link #parsePage(File, long, int)}).
+     *
+     * @param changelogFile changelog file
+     * @param pageSize number of distinct entries per page
+     * @param pageOffsets receives the byte offset of the first entry of each
+     * page; left empty if the offsets can't be told apart reliably (e.g. the
+     * file is not UTF-8)
+     * @return number of distinct entries, or -1 if the entries are not in
+     * descending revision order
+     * @throws IOException if the file cannot be read
+     */
+    static int countEntries(File changelogFile, int pageSize, List<Long> pageOffsets) throws IOException {
+        // indexes (among all logentry elements, duplicates included) of the first entry of each page
+        List<Integer> pageStarts = new ArrayList<>();
+        int count = 0;
+        int elements = 0;
+        boolean utf8;
+        try (InputStream stream = new FileInputStream(changelogFile)) {
+            XMLStreamReader reader = createReader(stream, changelogFile);
             try {
-                digester.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-                digester.setFeature("http://xml.org/sax/features/external-general-entities", false);
-                digester.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-                digester.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-            } catch (ParserConfigurationException ex) {
-                throw new SAXException("Failed to securely configure xml digester parser", ex);
+                String encoding = reader.getCharacterEncodingScheme();
+                utf8 = encoding == null || "UTF-8".equalsIgnoreCase(encoding);
+                Integer lastRevision = null;
+                while (reader.hasNext()) {
+                    if (isLogEntryStart(reader, reader.next())) {
+                        int revision = getRevision(reader);
+                        if (lastRevision != null && revision > lastRevision) {
+                            return -1;
+                        }
+                        if (lastRevision == null || revision < lastRevision) {
+                            lastRevision = revision;
+                            if (count % pageSize == 0) {
+                                pageStarts.add(elements);
+                            }
+                            count++;
+                        }
+                        elements++;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | RuntimeException e) {
+            throw new IOException("Failed to parse " + changelogFile, e);
+        }
+
+        if (utf8) {
+            List<Long> offsets = findLogEntryOffsets(changelogFile);
+            // a "<logentry" in a comment or CDATA section would throw the offsets off
+            if (offsets.size() == elements) {
+                for (int start : pageStarts) {
+                    pageOffsets.add(offsets.get(start));
+                }
+            }
+        }
+        return count;
+    }
+
+    private static final byte[] LOG_ENTRY_TAG = "<logentry".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Finds the byte offsets of the {@code <logentry} start tags of a file.
+     */
+    private static List<Long> findLogEntryOffsets(File changelogFile) throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        try (InputStream stream = new BufferedInputStream(new FileInputStream(changelogFile))) {
+            long position = 0;
+            int matched = 0;
+            int b;
+            while ((b = stream.read()) != -1) {
+                if (matched == LOG_ENTRY_TAG.length) {
+                    if (b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '>' || b == '/') {
+                        offsets.add(position - LOG_ENTRY_TAG.length);
+                    }
+                    matched = 0;
+                }
+                if (b == LOG_ENTRY_TAG[matched]) {
+                    matched++;
+                } else {
+                    matched = b == LOG_ENTRY_TAG[0] ? 1 : 0;
+                }
+                position++;
             }
         }
-        return digester;
+        return offsets;
     }
 
-    private static Digester createDigester(ArrayList<LogEntry> logs) throws SAXException {
-        boolean secure = (!Boolean.getBoolean(GXSChangeLogParser.class.getName() + ".UNSAFE"));
-        Digester digester = createDigester(secure);
-        digester.push(logs);
+    /**
+     * Reads a range of the distinct entries of a changelog whose entries are
+     * in descending revision order (see {@link #countEntries(File)}).
+     *
+     * @param changelogFile changelog file
+     * @param from index of the first entry to read
+     * @param max maximum number of entries to read
+     * @return the entries read
+     * @throws IOException if the file cannot be read
+     */
+    static List<LogEntry> parsePage(File changelogFile, int from, int max) throws IOException {
+        try (InputStream stream = new FileInputStream(changelogFile)) {
+            return parsePage(stream, changelogFile, from, max);
+        }
+    }
 
-        digester.addObjectCreate("*/logentry", LogEntry.class);
-        digester.addSetProperties("*/logentry");
-        digester.addBeanPropertySetter("*/logentry/author", "user");
+    /**
+     * Reads a page of the distinct entries of a changelog, starting at an
+     * offset found by {@link #countEntries(File, int, List)}, without
+     * parsing what comes before it.
+     *
+     * @param changelogFile changelog file
+     * @param offset byte offset of the first entry of the page
+     * @param max maximum number of entries to read
+     * @return the entries read
+     * @throws IOException if the file cannot be read
+     */
+    static List<LogEntry> parsePage(File changelogFile, long offset, int max) throws IOException {
+        try (InputStream file = new FileInputStream(changelogFile)) {
+            long skipped = 0;
+            while (skipped < offset) {
+                long n = file.skip(offset - skipped);
+                if (n <= 0) {
+                    throw new IOException("Offset " + offset + " is past the end of " + changelogFile);
+                }
+                skipped += n;
+            }
 
-        /* times in changelog.xml are in UTC (output from a call to "TeamDev.exe -utc ...") */
-        digester.addCallMethod("*/logentry/date", "setDateFromUTCDate", 0);
+            InputStream header = new ByteArrayInputStream(PAGE_HEADER);
+            return parsePage(new SequenceInputStream(header, file), changelogFile, 0, max);
+        }
+    }
 
-        digester.addBeanPropertySetter("*/logentry/msg");
-        digester.addSetNext("*/logentry", "add");
+    private static final byte[] PAGE_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><log>".getBytes(StandardCharsets.UTF_8);
 
-        digester.addObjectCreate("*/logentry/actions/action", Action.class);
-        digester.addSetProperties("*/logentry/actions/action");
-        digester.addBeanPropertySetter("*/logentry/actions/action/objectGuid");
-        digester.addBeanPropertySetter("*/logentry/actions/action/objectType");
-        digester.addBeanPropertySetter("*/logentry/actions/action/objectTypeGuid");
-        digester.addBeanPropertySetter("*/logentry/actions/action/objectName");
-        digester.addBeanPropertySetter("*/logentry/actions/action/objectDescription");
-        digester.addSetNext("*/logentry/actions/action", "addAction");
+    private static List<LogEntry> parsePage(InputStream stream, File changelogFile, int from, int max) throws IOException {
+        List<LogEntry> logs = new ArrayList<>(max);
+        try {
+            XMLStreamReader reader = createReader(stream, changelogFile);
+            try {
+                Integer lastRevision = null;
+                int index = 0;
+                while (logs.size() < max && reader.hasNext()) {
+                    if (isLogEntryStart(reader, reader.next())) {
+                        int revision = getRevision(reader);
+                        if (lastRevision != null && revision >= lastRevision) {
+                            continue;
+                        }
+
+                        lastRevision = revision;
+                        if (index++ >= from) {
+                            LogEntry entry = readLogEntry(reader);
+                            entry.finish();
+                            logs.add(entry);
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | RuntimeException e) {
+            throw new IOException("Failed to parse " + changelogFile, e);
+        }
+        return logs;
+    }
+
+    private static XMLStreamReader createReader(InputStream stream, File changelogFile) throws IOException, XMLStreamException {
+        return createInputFactory().createXMLStreamReader(changelogFile.toURI().toURL().toString(), stream);
+    }
+
+    private static boolean isLogEntryStart(XMLStreamReader reader, int event) throws XMLStreamException {
+        if (event == XMLStreamConstants.DTD && isSecure()) {
+            throw new XMLStreamException("DOCTYPE is not allowed", reader.getLocation());
+        }
+
+        return event == XMLStreamConstants.START_ELEMENT && "logentry".equals(reader.getLocalName());
+    }
+
+    private static int getRevision(XMLStreamReader reader) {
+        String revision = reader.getAttributeValue(null, "revision");
+        return revision != null ? Integer.parseInt(revision.trim()) : 0;
+    }
+
+    private static boolean isSecure() {
+        return !Boolean.getBoolean(GXSChangeLogParser.class.getName() + ".UNSAFE");
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        if (isSecure()) {
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        }
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    private static void readLog(XMLStreamReader reader, List<LogEntry> logs) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (isLogEntryStart(reader, reader.next())) {
+                logs.add(readLogEntry(reader));
+            }
+        }
+    }
+
+    private static LogEntry readLogEntry(XMLStreamReader reader) throws XMLStreamException {
+        LogEntry entry = new LogEntry();
+        entry.setRevision(getRevision(reader));
+
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "author":
+                        entry.setUser(readText(reader));
+                        break;
+                    case "date":
+                        /* times in changelog.xml are in UTC (output from a call to "TeamDev.exe -utc ...") */
+                        entry.setDateFromUTCDate(readText(reader));
+                        break;
+                    case "msg":
+                        entry.setMsg(readText(reader));
+                        break;
+                    case "action":
+                        entry.addAction(readAction(reader));
+                        break;
+                    default:
+                        // e.g. <actions>
+                        depth++;
+                        break;
+                }
+            }
+        }
+
+        return entry;
+    }
+
+    private static Action readAction(XMLStreamReader reader) throws XMLStreamException {
+        Action action = new Action();
+        action.setType(reader.getAttributeValue(null, "type"));
+
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "objectGuid":
+                        action.setObjectGuid(readText(reader));
+                        break;
+                    case "objectType":
+                        action.setObjectType(readText(reader));
+                        break;
+                    case "objectTypeGuid":
+                        action.setObjectTypeGuid(readText(reader));
+                        break;
+                    case "objectName":
+                        action.setObjectName(readText(reader));
+                        break;
+                    case "objectDescription":
+                        action.setObjectDescription(readText(reader));
+                        break;
+                    default:
+                        depth++;
+                        break;
+                }
+            }
+        }
+
+        return action;
+    }
 
-        return digester;
+    /**
+     * Reads the text of a simple element, trimmed (as Digester used to).
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        return reader.getElementText().trim();
     }
 }
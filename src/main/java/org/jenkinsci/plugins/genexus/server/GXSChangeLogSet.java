@@ -29,8 +29,11 @@ import hudson.model.User;
 import hudson.scm.ChangeLogSet;
 import hudson.scm.EditType;
 import hudson.scm.RepositoryBrowser;
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -39,8 +42,14 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import org.kohsuke.stapler.export.Exported;
 import org.kohsuke.stapler.export.ExportedBean;
@@ -50,6 +59,12 @@ import org.kohsuke.stapler.export.ExportedBean;
  * @author jlr
  */
 public final class GXSChangeLogSet extends ChangeLogSet {
+
+    /**
+     * Number of entries read at once from large changelogs.
+     */
+    static final int PAGE_SIZE = Integer.getInteger(GXSChangeLogSet.class.getName() + ".pageSize", 100);
+
     private final List<LogEntry> logs;
 
     /**
@@ -63,6 +78,22 @@ public final class GXSChangeLogSet extends ChangeLogSet {
         this.logs = prepareChangeLogEntries(logs);
     }
 
+    /**
+     * Creates a change set that reads its entries from the changelog file
+     * as they are requested, one page at a time, instead of keeping them all
+     * in memory.
+     *
+     * @param changelogFile changelog with entries in descending revision order
+     * @param size number of distinct entries in the file
+     * @param pageOffsets byte offset of each page of {@link #PAGE_SIZE}
+     * entries in the file, or empty to find pages by parsing from the start
+     */
+    @SuppressWarnings("unchecked")
+    GXSChangeLogSet(Run<?,?> build, RepositoryBrowser<?> browser, File changelogFile, int size, List<Long> pageOffsets) {
+        super(build, browser);
+        this.logs = new PagedLogs(changelogFile, size, pageOffsets);
+    }
+
     public boolean isEmptySet() {
         return logs.isEmpty();
     }
@@ -112,14 +143,71 @@ public final class GXSChangeLogSet extends ChangeLogSet {
         return new ArrayList<>(entries);
     }
 
+    /**
+     * Read-only view of the entries of a large changelog file. Only the page
+     * holding the last requested entry is kept (softly) in memory. Pages are
+     * read from their offset in the file when known, so that going through
+     * all the entries reads the file about twice instead of once per page.
+     */
+    private final class PagedLogs extends AbstractList<LogEntry> {
+
+        private final File changelogFile;
+        private final int size;
+        private final List<Long> pageOffsets;
+        private SoftReference<List<LogEntry>> page = new SoftReference<>(null);
+        private int pageStart = -1;
+
+        PagedLogs(File changelogFile, int size, List<Long> pageOffsets) {
+            this.changelogFile = changelogFile;
+            this.size = size;
+            this.pageOffsets = new ArrayList<>(pageOffsets);
+        }
+
+        @Override
+        public LogEntry get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+
+            List<LogEntry> entries = getPage(index - index % PAGE_SIZE);
+            return entries.get(index % PAGE_SIZE);
+        }
+
+        private synchronized List<LogEntry> getPage(int start) {
+            List<LogEntry> entries = page.get();
+            if (entries == null || pageStart != start) {
+                try {
+                    int pageIndex = start / PAGE_SIZE;
+                    entries = pageIndex < pageOffsets.size()
+                            ? GXSChangeLogParser.parsePage(changelogFile, pageOffsets.get(pageIndex), PAGE_SIZE)
+                            : GXSChangeLogParser.parsePage(changelogFile, start, PAGE_SIZE);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                for (LogEntry log : entries) {
+                    log.setParent(GXSChangeLogSet.this);
+                }
+                page = new SoftReference<>(entries);
+                pageStart = start;
+            }
+            return entries;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
     /**
      * One commit.
      * <p>
-     * Setter methods are public only so that the objects can be constructed from Digester.
+     * Setter methods are public only so that the objects can be constructed from {@link GXSChangeLogParser}.
      * So please consider this object read-only.
      */
     public static class LogEntry extends ChangeLogSet.Entry {
         private int revision;
+        private String authorId;
         private User author;
         private Date date;
         private String msg;
@@ -163,10 +251,15 @@ public final class GXSChangeLogSet extends ChangeLogSet {
             return String.valueOf(revision);
         }
 
+        /**
+         * Resolves the author on first use (see {@link AuthorCache}).
+         */
         @Override
         public User getAuthor() {
-            if(author==null)
+            if (authorId == null)
                 return User.getUnknown();
+            if (author == null)
+                author = AuthorCache.resolve(authorId);
             return author;
         }
         
@@ -191,12 +284,13 @@ public final class GXSChangeLogSet extends ChangeLogSet {
         }
         
         public void setUser(String author) {
-            this.author = User.getById(author, true);
+            this.authorId = author;
+            this.author = null;
         }
 
         @Exported
-        public String getUser() {// digester wants read/write property, even though it never reads. Duh.
-            return author!=null ? author.getDisplayName() : "unknown";
+        public String getUser() {
+            return authorId!=null ? getAuthor().getDisplayName() : "unknown";
         }
 
         @Exported
@@ -278,7 +372,7 @@ public final class GXSChangeLogSet extends ChangeLogSet {
             if (revision != that.revision) {
                 return false;
             }
-            if (author != null ? !author.equals(that.author) : that.author != null) {
+            if (authorId != null ? !authorId.equals(that.authorId) : that.authorId != null) {
                 return false;
             }
             if (date != null ? !date.equals(that.date) : that.date != null) {
@@ -294,7 +388,7 @@ public final class GXSChangeLogSet extends ChangeLogSet {
         @Override
         public int hashCode() {
             int result = revision;
-            result = 31 * result + (author != null ? author.hashCode() : 0);
+            result = 31 * result + (authorId != null ? authorId.hashCode() : 0);
             result = 31 * result + (date != null ? date.hashCode() : 0);
             result = 31 * result + (msg != null ? msg.hashCode() : 0);
             return result;
@@ -304,8 +398,13 @@ public final class GXSChangeLogSet extends ChangeLogSet {
     /**
      * A file in a commit.
      * <p>
-     * Setter methods are public only so that the objects can be constructed from Digester.
+     * Setter methods are public only so that the objects can be constructed from {@link GXSChangeLogParser}.
      * So please consider this object read-only.
+     * <p>
+     * Large changelogs hold many actions, so they are kept compact: GUIDs are
+     * stored as two longs (their text is only rebuilt by the getters) and
+     * action and object types, which repeat a lot, are shared through
+     * {@link #intern(String)}.
      */
     @ExportedBean(defaultVisibility=999)
     public static class Action implements AffectedFile {
@@ -313,19 +412,37 @@ public final class GXSChangeLogSet extends ChangeLogSet {
         private static final String MODIFIED = "Modified";
         private static final String INSERTED = "Inserted";
         private static final String DELETED = "Deleted";
-        
+
+        /**
+         * Upper bound for the number of distinct type names shared.
+         */
+        private static final int MAX_INTERNED = 4096;
+
+        private static final ConcurrentMap<String, String> INTERNED = new ConcurrentHashMap<>();
+
         private LogEntry entry;
         private String type;
 
         /**
          * Object Id
          */
-        private String objectGuid;
+        private long objectGuidMsb;
+        private long objectGuidLsb;
+        private boolean hasObjectGuid;
 
         /**
          * Object Type Id
          */
-        private String objectTypeGuid;
+        private long objectTypeGuidMsb;
+        private long objectTypeGuidLsb;
+        private boolean hasObjectTypeGuid;
+
+        /**
+         * Text of a GUID that can't be stored as two longs (not expected, but
+         * kept to return exactly what was read).
+         */
+        private String objectGuidText;
+        private String objectTypeGuidText;
         
         /**
          * Object Type
@@ -360,8 +477,43 @@ public final class GXSChangeLogSet extends ChangeLogSet {
             return entry;
         }
 
+        static String intern(String value) {
+            if (value == null) {
+                return null;
+            }
+
+            String shared = INTERNED.get(value);
+            if (shared != null) {
+                return shared;
+            }
+
+            if (INTERNED.size() >= MAX_INTERNED) {
+                return value;
+            }
+
+            shared = INTERNED.putIfAbsent(value, value);
+            return shared != null ? shared : value;
+        }
+
+        /**
+         * @return the GUID, or null if the text isn't exactly the canonical
+         * form of a GUID
+         */
+        private static UUID parseGuid(String value) {
+            if (value == null || value.length() != 36) {
+                return null;
+            }
+
+            try {
+                UUID guid = UUID.fromString(value);
+                return guid.toString().equals(value) ? guid : null;
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+
         public void setType(String type) {
-            this.type = type;
+            this.type = intern(type);
         }
 
         public String getType() {
@@ -369,24 +521,32 @@ public final class GXSChangeLogSet extends ChangeLogSet {
         }
         
         public void setObjectGuid(String objectGuid) {
-            this.objectGuid = objectGuid;
+            UUID guid = parseGuid(objectGuid);
+            hasObjectGuid = guid != null;
+            objectGuidMsb = hasObjectGuid ? guid.getMostSignificantBits() : 0;
+            objectGuidLsb = hasObjectGuid ? guid.getLeastSignificantBits() : 0;
+            objectGuidText = hasObjectGuid ? null : objectGuid;
         }
         
         public String getObjectGuid() {
-            return objectGuid;
+            return hasObjectGuid ? new UUID(objectGuidMsb, objectGuidLsb).toString() : objectGuidText;
         }
         
         public void setObjectTypeGuid(String objectTypeGuid) {
-            this.objectTypeGuid = objectTypeGuid;
+            UUID guid = parseGuid(objectTypeGuid);
+            hasObjectTypeGuid = guid != null;
+            objectTypeGuidMsb = hasObjectTypeGuid ? guid.getMostSignificantBits() : 0;
+            objectTypeGuidLsb = hasObjectTypeGuid ? guid.getLeastSignificantBits() : 0;
+            objectTypeGuidText = hasObjectTypeGuid ? null : objectTypeGuid;
         }
         
         @Exported
         public String getObjectTypeGuid() {
-            return objectTypeGuid;
+            return hasObjectTypeGuid ? new UUID(objectTypeGuidMsb, objectTypeGuidLsb).toString() : objectTypeGuidText;
         }
         
         public void setObjectType(String objectType) {
-            this.objectType = objectType;
+            this.objectType = intern(objectType);
         }
         
         public String getObjectType() {
@@ -429,6 +589,58 @@ public final class GXSChangeLogSet extends ChangeLogSet {
         }
     }
 
+    /**
+     * Bounded, expiring cache in front of {@link User#getById(String, boolean)},
+     * so that entries of large changelogs by the same author don't each go
+     * through user lookup (and creation).
+     */
+    private static final class AuthorCache {
+
+        private static final int MAX_SIZE = Integer.getInteger(GXSChangeLogSet.class.getName() + ".authorCacheSize", 1000);
+
+        private static final long EXPIRATION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+        private static final Map<String, CachedUser> USERS = new LinkedHashMap<String, CachedUser>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > MAX_SIZE;
+            }
+        };
+
+        private AuthorCache() {
+        }
+
+        static User resolve(String id) {
+            long now = System.currentTimeMillis();
+            synchronized (USERS) {
+                CachedUser cached = USERS.get(id);
+                if (cached != null && now - cached.resolvedAt < EXPIRATION_MILLIS) {
+                    return cached.user;
+                }
+            }
+
+            // resolved outside the lock: User.getById may take its own locks
+            User user = User.getById(id, true);
+            synchronized (USERS) {
+                USERS.put(id, new CachedUser(user, now));
+            }
+            return user;
+        }
+
+        private static final class CachedUser {
+
+            private final User user;
+            private final long resolvedAt;
+
+            CachedUser(User user, long resolvedAt) {
+                this.user = user;
+                this.resolvedAt = resolvedAt;
+            }
+        }
+    }
+
     private static final class ReverseByRevisionComparator implements Comparator<LogEntry>, Serializable {
         private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,248 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-server circuit breaker for GXserver polling.
+ * <p>
+ * After {@link #FAILURE_THRESHOLD} consecutive failures the circuit opens
+ * and polling stops querying the server. Once the backoff period has elapsed
+ * a single probe query is let through (half-open state): if it succeeds the
+ * circuit closes again, otherwise it reopens with twice the previous backoff
+ * (up to {@link #MAX_BACKOFF_SECONDS}).
+ * <p>
+ * Every polling call to GXserver goes through {@link #call(Call)}.
+ *
+ * @author jlr
+ */
+public final class GXSCircuitBreaker {
+
+    private static final Logger LOGGER = Logger.getLogger(GXSCircuitBreaker.class.getName());
+
+    /**
+     * Consecutive failures needed to open the circuit.
+     */
+    static final int FAILURE_THRESHOLD = Integer.getInteger(GXSCircuitBreaker.class.getName() + ".failureThreshold", 3);
+
+    /**
+     * Time (in seconds) the circuit stays open after it first opens.
+     */
+    static final long INITIAL_BACKOFF_SECONDS = Long.getLong(GXSCircuitBreaker.class.getName() + ".initialBackoff", 60);
+
+    /**
+     * Upper bound (in seconds) for the time the circuit stays open.
+     */
+    static final long MAX_BACKOFF_SECONDS = Long.getLong(GXSCircuitBreaker.class.getName() + ".maxBackoff", 30 * 60);
+
+    private static final ConcurrentMap<String, GXSCircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * A GXserver call guarded by a breaker.
+     *
+     * @param <T> type of the result
+     */
+    public interface Call<T> {
+
+        T call() throws IOException, InterruptedException;
+    }
+
+    private final String serverURL;
+    private final LongSupplier clock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long backoffMillis = TimeUnit.SECONDS.toMillis(INITIAL_BACKOFF_SECONDS);
+    private long retryAt;
+    private boolean probeInProgress;
+    private String lastError;
+
+    private GXSCircuitBreaker(String serverURL) {
+        this(serverURL, System::currentTimeMillis);
+    }
+
+    GXSCircuitBreaker(String serverURL, LongSupplier clock) {
+        this.serverURL = serverURL;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the breaker for a server.
+     *
+     * @param serverURL URL of the GeneXus Server
+     * @return the (shared) breaker for that server
+     */
+    public static GXSCircuitBreaker forServer(String serverURL) {
+        return BREAKERS.computeIfAbsent(serverURL, GXSCircuitBreaker::new);
+    }
+
+    /**
+     * Gets the breaker for a server, if any call was ever made to it.
+     *
+     * @param serverURL URL of the GeneXus Server
+     * @return null if there is no breaker for that server
+     */
+    public static GXSCircuitBreaker getIfExists(String serverURL) {
+        return BREAKERS.get(serverURL);
+    }
+
+    /**
+     * Makes a call unless the circuit is open, and records its outcome.
+     *
+     * @param <T> type of the result
+     * @param call the call
+     * @return the value returned by the call
+     * @throws GXSCircuitOpenException if the circuit is open
+     * @throws IOException if the call fails
+     * @throws InterruptedException if the call is interrupted
+     */
+    public <T> T call(Call<T> call) throws IOException, InterruptedException {
+        if (!allowRequest()) {
+            throw new GXSCircuitOpenException("GXserver " + serverURL
+                    + " is unavailable (circuit open until " + getRetryAt() + ")");
+        }
+
+        T result;
+        try {
+            result = call.call();
+        } catch (IOException | RuntimeException ex) {
+            recordFailure(ex);
+            throw ex;
+        } catch (InterruptedException ex) {
+            cancelProbe();
+            throw ex;
+        }
+
+        recordSuccess();
+        return result;
+    }
+
+    /**
+     * Checks whether a call to the server may proceed. When the circuit is
+     * half-open only one caller gets a positive answer; that caller must
+     * then report the outcome through {@link #recordSuccess()} or
+     * {@link #recordFailure(Throwable)}.
+     *
+     * @return true if the call may proceed
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() < retryAt) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInProgress = true;
+                LOGGER.log(Level.INFO, "Probing GXserver {0} after circuit was open", serverURL);
+                return true;
+            default:
+                if (probeInProgress) {
+                    return false;
+                }
+                probeInProgress = true;
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            LOGGER.log(Level.INFO, "GXserver {0} is reachable again, closing circuit", serverURL);
+        }
+
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        backoffMillis = TimeUnit.SECONDS.toMillis(INITIAL_BACKOFF_SECONDS);
+        probeInProgress = false;
+        lastError = null;
+    }
+
+    public synchronized void recordFailure(Throwable error) {
+        consecutiveFailures++;
+        lastError = error.toString();
+
+        if (state == State.HALF_OPEN) {
+            backoffMillis = Math.min(backoffMillis * 2, TimeUnit.SECONDS.toMillis(MAX_BACKOFF_SECONDS));
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= FAILURE_THRESHOLD) {
+            open();
+        }
+    }
+
+    /**
+     * Gives up a half-open probe without reporting an outcome (for example
+     * because the caller was interrupted), letting another caller probe.
+     */
+    public synchronized void cancelProbe() {
+        probeInProgress = false;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        probeInProgress = false;
+        retryAt = clock.getAsLong() + backoffMillis;
+        LOGGER.log(Level.WARNING, "Opening circuit for GXserver {0} after {1} consecutive failures; retrying in {2}s",
+                new Object[]{serverURL, consecutiveFailures, TimeUnit.MILLISECONDS.toSeconds(backoffMillis)});
+    }
+
+    public String getServerURL() {
+        return serverURL;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    public synchronized boolean isHalfOpen() {
+        return state == State.HALF_OPEN;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized Date getRetryAt() {
+        return state == State.CLOSED ? null : new Date(retryAt);
+    }
+
+    public synchronized String getLastError() {
+        return lastError;
+    }
+}
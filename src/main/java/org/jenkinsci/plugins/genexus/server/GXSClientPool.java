@@ -0,0 +1,396 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.genexus.gxserver.client.clients.TeamWorkService2Client;
+import hudson.Extension;
+import hudson.model.PeriodicWork;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of {@link TeamWorkService2Client} instances keyed by server URL and
+ * user name.
+ * <p>
+ * Creating a client means building a SOAP proxy and authenticating against
+ * GXserver, which usually costs more than the query itself. Pooled clients
+ * keep their HTTP connections (and authenticated sessions) alive between
+ * polls and changelog fetches. A client is used by a single caller at a time;
+ * clients left idle longer than {@link #IDLE_TIMEOUT_SECONDS} are discarded.
+ * <p>
+ * The client API has no timeout settings, so the connect and read timeouts
+ * ({@link #CONNECT_TIMEOUT_SECONDS}, {@link #READ_TIMEOUT_SECONDS}) are set
+ * on the request context of the JAX-WS ports the client holds. That way a
+ * hung GXserver makes the call fail instead of blocking its thread forever.
+ *
+ * @author jlr
+ */
+public final class GXSClientPool {
+
+    private static final Logger LOGGER = Logger.getLogger(GXSClientPool.class.getName());
+
+    /**
+     * Time (in seconds) after which an unused client is evicted.
+     */
+    static final long IDLE_TIMEOUT_SECONDS = Long.getLong(GXSClientPool.class.getName() + ".idleTimeout", 600);
+
+    /**
+     * Maximum number of idle clients kept for a single server/user.
+     */
+    static final int MAX_IDLE_PER_KEY = Integer.getInteger(GXSClientPool.class.getName() + ".maxIdlePerKey", 4);
+
+    /**
+     * Time (in seconds) allowed to open a connection to GXserver.
+     */
+    static final long CONNECT_TIMEOUT_SECONDS = Long.getLong(GXSClientPool.class.getName() + ".connectTimeout", 30);
+
+    /**
+     * Time (in seconds) allowed to wait for GXserver to answer a request.
+     */
+    static final long READ_TIMEOUT_SECONDS = Long.getLong(GXSClientPool.class.getName() + ".readTimeout", GXSCallExecutor.CALL_TIMEOUT_SECONDS);
+
+    /**
+     * Request context properties for the connect timeout (JAX-WS RI, the
+     * JDK internal copy of it and CXF), in milliseconds.
+     */
+    private static final String[] CONNECT_TIMEOUT_PROPERTIES = {
+        "com.sun.xml.ws.connect.timeout",
+        "com.sun.xml.internal.ws.connect.timeout",
+        "javax.xml.ws.client.connectionTimeout"
+    };
+
+    /**
+     * Request context properties for the read timeout, in milliseconds.
+     */
+    private static final String[] READ_TIMEOUT_PROPERTIES = {
+        "com.sun.xml.ws.request.timeout",
+        "com.sun.xml.internal.ws.request.timeout",
+        "javax.xml.ws.client.receiveTimeout"
+    };
+
+    private static final String[] BINDING_PROVIDER_CLASSES = {
+        "javax.xml.ws.BindingProvider",
+        "jakarta.xml.ws.BindingProvider"
+    };
+
+    /**
+     * How deep the fields of a client are searched for JAX-WS ports.
+     */
+    private static final int PORT_SEARCH_DEPTH = 4;
+
+    private static final GXSClientPool INSTANCE = new GXSClientPool();
+
+    private final Map<PoolKey, Deque<PooledClient>> idleClients = new HashMap<>();
+
+    private GXSClientPool() {
+    }
+
+    public static GXSClientPool get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Borrows a client for the given connection, creating a new one if no
+     * idle client is available. The returned lease must be closed to give the
+     * client back to the pool.
+     *
+     * @param gxsConnection connection data
+     * @return a lease on a client
+     * @throws IOException if a new client cannot be created
+     */
+    public Lease acquire(GXSConnection gxsConnection) throws IOException {
+        PoolKey key = new PoolKey(gxsConnection);
+
+        PooledClient pooled = pollIdle(key);
+        if (pooled == null) {
+            LOGGER.log(Level.FINE, "Creating GXserver client for {0}", key);
+            TeamWorkService2Client client = new TeamWorkService2Client(
+                    gxsConnection.getServerURL(),
+                    gxsConnection.getUserName(),
+                    gxsConnection.getUserPassword()
+            );
+            pooled = new PooledClient(client, gxsConnection.getUserPassword());
+        }
+
+        // ports may be created lazily by the client, so look for new ones
+        // every time it is handed out
+        if (setTimeouts(pooled.client) == 0) {
+            LOGGER.log(Level.FINE, "No JAX-WS port found yet in GXserver client for {0}, its calls have no connect/read timeout", key);
+        }
+
+        return new Lease(key, pooled);
+    }
+
+    /**
+     * Sets the connect and read timeouts on every JAX-WS port reachable from
+     * the fields of a client.
+     *
+     * @param client the client
+     * @return number of ports found
+     */
+    static int setTimeouts(Object client) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        return setTimeouts(client, bindingProviderMethods(client.getClass().getClassLoader()), visited, 0);
+    }
+
+    private static int setTimeouts(Object target, Map<Class<?>, Method> providers, Set<Object> visited, int depth) {
+        if (target == null || !visited.add(target)) {
+            return 0;
+        }
+
+        for (Map.Entry<Class<?>, Method> provider : providers.entrySet()) {
+            if (provider.getKey().isInstance(target)) {
+                return setTimeouts(target, provider.getValue()) ? 1 : 0;
+            }
+        }
+
+        if (depth >= PORT_SEARCH_DEPTH || isPlatformClass(target.getClass())) {
+            return 0;
+        }
+
+        int found = 0;
+        for (Class<?> c = target.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    found += setTimeouts(field.get(target), providers, visited, depth + 1);
+                } catch (IllegalAccessException | RuntimeException ex) {
+                    LOGGER.log(Level.FINEST, "Cannot read " + field, ex);
+                }
+            }
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean setTimeouts(Object port, Method getRequestContext) {
+        try {
+            Map<String, Object> context = (Map<String, Object>) getRequestContext.invoke(port);
+            int connectTimeout = (int) TimeUnit.SECONDS.toMillis(CONNECT_TIMEOUT_SECONDS);
+            int readTimeout = (int) TimeUnit.SECONDS.toMillis(READ_TIMEOUT_SECONDS);
+            for (String property : CONNECT_TIMEOUT_PROPERTIES) {
+                context.put(property, connectTimeout);
+            }
+            for (String property : READ_TIMEOUT_PROPERTIES) {
+                context.put(property, readTimeout);
+            }
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Cannot set the timeouts of a GXserver port", ex);
+            return false;
+        }
+    }
+
+    private static Map<Class<?>, Method> bindingProviderMethods(ClassLoader loader) {
+        Map<Class<?>, Method> providers = new HashMap<>();
+        for (String name : BINDING_PROVIDER_CLASSES) {
+            try {
+                Class<?> c = Class.forName(name, false, loader);
+                providers.put(c, c.getMethod("getRequestContext"));
+            } catch (ClassNotFoundException | NoSuchMethodException ex) {
+                // not on the classpath
+            }
+        }
+        return providers;
+    }
+
+    private static boolean isPlatformClass(Class<?> c) {
+        String name = c.getName();
+        return c.isArray() || name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jakarta.")
+                || name.startsWith("jdk.") || name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+
+    private synchronized PooledClient pollIdle(PoolKey key) {
+        Deque<PooledClient> clients = idleClients.get(key);
+        if (clients == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        PooledClient pooled;
+        while ((pooled = clients.pollFirst()) != null) {
+            if (!pooled.isExpired(now) && Objects.equals(pooled.password, key.password)) {
+                return pooled;
+            }
+        }
+
+        idleClients.remove(key);
+        return null;
+    }
+
+    private synchronized void release(PoolKey key, PooledClient pooled, boolean reusable) {
+        if (!reusable) {
+            return;
+        }
+
+        Deque<PooledClient> clients = idleClients.computeIfAbsent(key, k -> new ArrayDeque<>());
+        if (clients.size() >= MAX_IDLE_PER_KEY) {
+            return;
+        }
+
+        pooled.lastUsed = System.currentTimeMillis();
+        clients.addFirst(pooled);
+    }
+
+    /**
+     * Discards all clients that have been idle for too long.
+     */
+    synchronized void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Deque<PooledClient>> it = idleClients.values().iterator(); it.hasNext();) {
+            Deque<PooledClient> clients = it.next();
+            clients.removeIf(pooled -> pooled.isExpired(now));
+            if (clients.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Discards every pooled client.
+     */
+    public synchronized void clear() {
+        idleClients.clear();
+    }
+
+    /**
+     * Exclusive use of a pooled client until {@link #close()} is called.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final PoolKey key;
+        private final PooledClient pooled;
+        private boolean reusable = true;
+
+        private Lease(PoolKey key, PooledClient pooled) {
+            this.key = key;
+            this.pooled = pooled;
+        }
+
+        public TeamWorkService2Client getClient() {
+            return pooled.client;
+        }
+
+        /**
+         * Marks the client as broken (for example after a communication
+         * error) so that it is not handed out again.
+         */
+        public void invalidate() {
+            reusable = false;
+        }
+
+        @Override
+        public void close() {
+            release(key, pooled, reusable);
+        }
+    }
+
+    private static final class PooledClient {
+
+        private final TeamWorkService2Client client;
+        private final String password;
+        private long lastUsed = System.currentTimeMillis();
+
+        PooledClient(TeamWorkService2Client client, String password) {
+            this.client = client;
+            this.password = password;
+        }
+
+        boolean isExpired(long now) {
+            return now - lastUsed > TimeUnit.SECONDS.toMillis(IDLE_TIMEOUT_SECONDS);
+        }
+    }
+
+    private static final class PoolKey {
+
+        private final String serverURL;
+        private final String userName;
+        private final String password;
+
+        PoolKey(GXSConnection gxsConnection) {
+            this.serverURL = gxsConnection.getServerURL();
+            this.userName = gxsConnection.getUserName();
+            this.password = gxsConnection.getUserPassword();
+        }
+
+        @Override
+        public boolean equals(Object that) {
+            if (this == that) {
+                return true;
+            }
+
+            if (that == null || getClass() != that.getClass()) {
+                return false;
+            }
+
+            PoolKey thatKey = (PoolKey) that;
+            return Objects.equals(serverURL, thatKey.serverURL)
+                    && Objects.equals(userName, thatKey.userName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serverURL, userName);
+        }
+
+        @Override
+        public String toString() {
+            return userName + "@" + serverURL;
+        }
+    }
+
+    /**
+     * Periodically evicts idle clients.
+     */
+    @Extension
+    public static final class IdleEviction extends PeriodicWork {
+
+        @Override
+        public long getRecurrencePeriod() {
+            return MIN;
+        }
+
+        @Override
+        protected void doRun() {
+            GXSClientPool.get().evictIdle();
+        }
+    }
+}
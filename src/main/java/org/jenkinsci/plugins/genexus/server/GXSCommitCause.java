@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.model.Cause;
+import org.kohsuke.stapler.export.Exported;
+
+/**
+ * Cause of a build started by a GXserver commit notification.
+ *
+ * @author jlr
+ */
+public class GXSCommitCause extends Cause {
+
+    private final String revision;
+
+    public GXSCommitCause(String revision) {
+        this.revision = revision;
+    }
+
+    @Exported(visibility = 3)
+    public String getRevision() {
+        return revision;
+    }
+
+    @Override
+    public String getShortDescription() {
+        if (revision == null || revision.isEmpty()) {
+            return "Started by GeneXus Server commit";
+        }
+        return "Started by GeneXus Server commit (revision " + revision + ")";
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        return that instanceof GXSCommitCause && revision.equals(((GXSCommitCause) that).revision);
+    }
+
+    @Override
+    public int hashCode() {
+        return revision.hashCode();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.CauseAction;
+import hudson.model.Job;
+import hudson.model.UnprotectedRootAction;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.security.csrf.CrumbExclusion;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import jenkins.model.Jenkins;
+import jenkins.model.ParameterizedJobMixIn;
+import jenkins.triggers.SCMTriggerItem;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+/**
+ * Receives "revision committed" notifications from GXserver and schedules
+ * every job watching the notified server/KB/version, without going through
+ * SCM polling.
+ * <p>
+ * Expects a POST to <code>/gxserver-webhook/notifyCommit</code> with the
+ * parameters <code>serverURL</code>, <code>kbName</code>,
+ * <code>kbVersion</code> (optional), <code>revision</code> (optional) and
+ * <code>token</code>. Only jobs with a {@link GXSCommitTrigger} whose token
+ * matches are scheduled. Server URLs are compared as the SCM resolves them
+ * (a blank URL is the default server, trailing slashes are ignored).
+ *
+ * @author jlr
+ */
+@Extension
+public class GXSCommitNotifier implements UnprotectedRootAction {
+
+    public static final String URL_NAME = "gxserver-webhook";
+
+    private static final Logger LOGGER = Logger.getLogger(GXSCommitNotifier.class.getName());
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return null;
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    @RequirePOST
+    public void doNotifyCommit(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        String serverURL = Util.fixEmptyAndTrim(req.getParameter("serverURL"));
+        String kbName = Util.fixEmptyAndTrim(req.getParameter("kbName"));
+        String kbVersion = Util.fixEmptyAndTrim(req.getParameter("kbVersion"));
+        String revision = Util.fixNull(Util.fixEmptyAndTrim(req.getParameter("revision")));
+        String token = req.getParameter("token");
+
+        rsp.setContentType("text/plain;charset=UTF-8");
+        if (serverURL == null || kbName == null) {
+            rsp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            rsp.getWriter().println("serverURL and kbName are required");
+            return;
+        }
+
+        String key = createKey(serverURL, kbName, kbVersion);
+        Set<String> scmKeys = new HashSet<>();
+        List<String> scheduled = scheduleJobs(key, revision, token, scmKeys);
+
+        // The notified revision is newer than anything cached for polling
+        for (String scmKey : scmKeys) {
+            GXSPollingCoordinator.get().invalidate(scmKey);
+        }
+
+        PrintWriter writer = rsp.getWriter();
+        writer.println("Scheduled " + scheduled.size() + " job(s) for " + key);
+        for (String jobName : scheduled) {
+            writer.println(jobName);
+        }
+    }
+
+    private static String createKey(String serverURL, String kbName, String kbVersion) {
+        return GeneXusServerSCM.createKey(GXSConnection.normalizeServerURL(serverURL), kbName, kbVersion);
+    }
+
+    /**
+     * @param scmKeys receives the {@link GeneXusServerSCM#getKey()} of the
+     * SCMs of the scheduled jobs
+     */
+    private static List<String> scheduleJobs(String key, String revision, String token, Set<String> scmKeys) {
+        List<String> scheduled = new ArrayList<>();
+
+        // The token is checked against each job's trigger, so we look up jobs
+        // regardless of the (usually anonymous) caller's permissions.
+        try (ACLContext ctx = ACL.as2(ACL.SYSTEM2)) {
+            for (Job<?, ?> job : Jenkins.get().allItems(Job.class)) {
+                GXSCommitTrigger trigger = ParameterizedJobMixIn.getTrigger(job, GXSCommitTrigger.class);
+                if (trigger == null || !trigger.acceptsToken(token)) {
+                    continue;
+                }
+
+                String scmKey = findWatchingScmKey(job, key);
+                if (scmKey == null) {
+                    continue;
+                }
+                scmKeys.add(scmKey);
+
+                SCMTriggerItem item = SCMTriggerItem.SCMTriggerItems.asSCMTriggerItem(job);
+                if (item != null && item.scheduleBuild2(item.getQuietPeriod(), new CauseAction(new GXSCommitCause(revision))) != null) {
+                    LOGGER.log(Level.FINE, "Scheduled {0} after commit notification for {1}", new Object[]{job.getFullName(), key});
+                    scheduled.add(job.getFullName());
+                }
+            }
+        }
+
+        return scheduled;
+    }
+
+    /**
+     * @return the key of the job's SCM watching the notified server/KB/version,
+     * or null if there is none
+     */
+    private static String findWatchingScmKey(Job<?, ?> job, String key) {
+        for (GeneXusServerSCM scm : GeneXusServerSCM.getGeneXusServerSCMs(job)) {
+            if (key.equals(createKey(scm.getServerURL(), scm.getKbName(), scm.getKbVersion()))) {
+                return scm.getKey();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * GXserver cannot obtain a crumb, so notifications are exempt from CSRF
+     * protection. Requests are authenticated by the trigger token instead.
+     */
+    @Extension
+    public static class CrumbExclusionImpl extends CrumbExclusion {
+
+        @Override
+        public boolean process(HttpServletRequest req, HttpServletResponse resp, FilterChain chain) throws IOException, ServletException {
+            String pathInfo = req.getPathInfo();
+            if (pathInfo != null && pathInfo.startsWith("/" + URL_NAME + "/")) {
+                chain.doFilter(req, resp);
+                return true;
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.triggers.Trigger;
+import hudson.triggers.TriggerDescriptor;
+import hudson.util.FormValidation;
+import hudson.util.Secret;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import jenkins.triggers.SCMTriggerItem;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+/**
+ * Starts a build when GXserver notifies (through {@link GXSCommitNotifier})
+ * that a revision was committed to the KB/version watched by the job.
+ * <p>
+ * Notifications must carry the token configured here; jobs without a token
+ * are never triggered.
+ *
+ * @author jlr
+ */
+public class GXSCommitTrigger extends Trigger<Job<?, ?>> {
+
+    private final Secret token;
+
+    @DataBoundConstructor
+    public GXSCommitTrigger(Secret token) {
+        this.token = token;
+    }
+
+    public Secret getToken() {
+        return token;
+    }
+
+    /**
+     * Checks a token received in a notification against the one configured
+     * for this trigger.
+     *
+     * @param candidate token received
+     * @return true if both tokens are not blank and equal
+     */
+    boolean acceptsToken(String candidate) {
+        String expected = Secret.toString(token);
+        if (Util.fixEmpty(expected) == null || Util.fixEmpty(candidate) == null) {
+            return false;
+        }
+
+        return MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8),
+                candidate.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Extension
+    @Symbol("gxserverCommit")
+    public static final class DescriptorImpl extends TriggerDescriptor {
+
+        @Override
+        public boolean isApplicable(Item item) {
+            return item instanceof Job && SCMTriggerItem.SCMTriggerItems.asSCMTriggerItem(item) != null;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "Build when GeneXus Server notifies a commit";
+        }
+
+        @RequirePOST
+        public FormValidation doCheckToken(@QueryParameter Secret value) {
+            if (Util.fixEmpty(Secret.toString(value)) == null) {
+                return FormValidation.warning("Notifications are ignored unless a token is set");
+            }
+
+            return FormValidation.ok();
+        }
+    }
+}
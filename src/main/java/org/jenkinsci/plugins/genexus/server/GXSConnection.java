@@ -60,9 +60,26 @@ public class GXSConnection extends AbstractDescribableImpl<GXSConnection> implem
 
     @Exported
     public String getServerURL() {
+        return resolveServerURL(serverURL);
+    }
+
+    /**
+     * @param serverURL a configured server URL, possibly blank
+     * @return the URL actually used to connect to GeneXus Server
+     */
+    static String resolveServerURL(String serverURL) {
         return StringUtils.defaultIfBlank(serverURL, DEFAULT_SERVER_URL);
     }
 
+    /**
+     * @param serverURL a configured or notified server URL, possibly blank
+     * @return the URL actually used to connect, without trailing slashes, so
+     * that URLs of the same server compare equal
+     */
+    static String normalizeServerURL(String serverURL) {
+        return StringUtils.stripEnd(resolveServerURL(StringUtils.trim(serverURL)), "/");
+    }
+
     @Exported
     public String getUserName() {
         return userName;
@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the GXserver calls made to build a changelog, so that they can be
+ * reported in the build log.
+ * <p>
+ * The client API doesn't expose its requests, so this counts the calls the
+ * plugin makes: one per revisions query and one per revision whose actions
+ * are asked for (which, depending on the client, may be answered without
+ * going to the server).
+ *
+ * @author jlr
+ */
+final class GXSFetchStats {
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicInteger actionCalls = new AtomicInteger();
+    private final AtomicLong actionNanos = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+
+    void queryIssued() {
+        queries.incrementAndGet();
+    }
+
+    void actionsRetrieved(long nanos) {
+        actionCalls.incrementAndGet();
+        actionNanos.addAndGet(nanos);
+    }
+
+    int getRemoteCalls() {
+        return queries.get() + actionCalls.get();
+    }
+
+    @Override
+    public String toString() {
+        return "GXserver history needed " + getRemoteCalls() + " remote calls ("
+                + queries.get() + " revision queries, " + actionCalls.get() + " action requests taking "
+                + TimeUnit.NANOSECONDS.toMillis(actionNanos.get()) + " ms) in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms";
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.genexus.gxserver.client.info.ActionInfo;
+import com.genexus.gxserver.client.info.RevisionInfo;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A GXserver revision with its actions, as written to changelogs and kept
+ * in the {@link GXSHistoryStore}.
+ *
+ * @author jlr
+ */
+public class GXSHistoryRecord {
+
+    public int id;
+    public Date date;
+    public String author;
+    public String comment;
+    public List<Action> actions = new ArrayList<>();
+
+    public static class Action {
+
+        public String type;
+        public String objectGuid;
+        public String objectType;
+        public String objectTypeGuid;
+        public String objectName;
+        public String objectDescription;
+    }
+
+    /**
+     * Copies a revision obtained from GXserver (including its actions).
+     *
+     * @param revision revision info
+     * @param stats counters updated with the retrieval of the actions
+     * @return the record
+     */
+    static GXSHistoryRecord from(RevisionInfo revision, GXSFetchStats stats) {
+        GXSHistoryRecord record = new GXSHistoryRecord();
+        record.id = revision.id;
+        record.date = DateUtils.cloneIfNotNull(revision.date);
+        record.author = revision.author;
+        record.comment = revision.comment;
+
+        long start = System.nanoTime();
+        Iterable<ActionInfo> actionInfos = revision.getActions();
+        stats.actionsRetrieved(System.nanoTime() - start);
+
+        for (ActionInfo actionInfo : actionInfos) {
+            Action action = new Action();
+            action.type = actionInfo.actionType.toString();
+            action.objectGuid = actionInfo.objectGuid.toString();
+            action.objectType = actionInfo.objectType;
+            action.objectTypeGuid = actionInfo.getObjectTypeGuid().toString();
+            action.objectName = actionInfo.objectName;
+            action.objectDescription = actionInfo.objectDescription;
+            record.actions.add(action);
+        }
+        return record;
+    }
+}
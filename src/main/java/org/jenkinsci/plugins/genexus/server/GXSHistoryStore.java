@@ -0,0 +1,459 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genexus.gxserver.client.clients.RevisionsQuery;
+import com.genexus.gxserver.client.clients.TeamWorkService2Client;
+import com.genexus.gxserver.client.info.RevisionInfo;
+import hudson.Util;
+import hudson.model.TaskListener;
+import hudson.util.AtomicFileWriter;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+
+/**
+ * Controller-local copy of the revision history of a server/KB/version,
+ * shared by every job and build that connects with the same user.
+ * <p>
+ * Revisions (with their actions) are appended, one JSON document per line,
+ * to a file under {@code $JENKINS_HOME/gxserver-history}. The store covers a
+ * contiguous time range: it starts with the first range requested and is
+ * then extended by asking GXserver only for the revisions after the end of
+ * that range. An in-memory index (revision, date, offset) is built when the
+ * store is first used, so ranges are read without scanning the file.
+ * <p>
+ * The covered range ends at the date of the newest revision GXserver has
+ * returned, never at a Jenkins clock time, so a revision committed later can
+ * not fall inside it. Only one query runs at a time per store, and readers
+ * are not blocked while it runs.
+ * <p>
+ * Disabled unless the {@code enabled} system property is set.
+ *
+ * @author jlr
+ */
+public final class GXSHistoryStore {
+
+    private static final Logger LOGGER = Logger.getLogger(GXSHistoryStore.class.getName());
+
+    static final boolean ENABLED = Boolean.getBoolean(GXSHistoryStore.class.getName() + ".enabled");
+
+    /**
+     * Number of records read from disk at once while iterating.
+     */
+    private static final int READ_BATCH_SIZE = 64;
+
+    private static final ConcurrentMap<String, GXSHistoryStore> STORES = new ConcurrentHashMap<>();
+
+    private final File dataFile;
+    private final File coverageFile;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Held while asking GXserver for revisions, which are only appended by
+     * the holder.
+     */
+    private final Object fetchLock = new Object();
+
+    private boolean loaded;
+    private Coverage coverage;
+    private final List<IndexEntry> index = new ArrayList<>();
+    private long dataLength;
+
+    private GXSHistoryStore(File dir) {
+        this.dataFile = new File(dir, "revisions.jsonl");
+        this.coverageFile = new File(dir, "coverage.json");
+    }
+
+    /**
+     * Gets the store for the server/KB/version of a connection, as seen by
+     * its user: users with different permissions never share a store.
+     *
+     * @param gxsConnection connection data
+     * @return null if the store is disabled
+     */
+    static GXSHistoryStore forConnection(GXSConnection gxsConnection) {
+        if (!ENABLED) {
+            return null;
+        }
+
+        String key = GeneXusServerSCM.createKey(gxsConnection.getServerURL(), gxsConnection.getKbName(), gxsConnection.getKbVersion())
+                + "\n" + Util.fixNull(gxsConnection.getUserName());
+        return STORES.computeIfAbsent(key, k -> new GXSHistoryStore(
+                new File(new File(Jenkins.get().getRootDir(), "gxserver-history"), Util.getDigestOf(k))));
+    }
+
+    /**
+     * Checks whether every revision in a time range is in the store.
+     *
+     * @param from start of the range (inclusive)
+     * @param to end of the range (inclusive)
+     * @return true if the range can be answered from the store
+     */
+    synchronized boolean covers(Date from, Date to) throws IOException {
+        load();
+        return coverage != null
+                && from.getTime() >= coverage.from
+                && to.getTime() <= coverage.until;
+    }
+
+    /**
+     * Extends the store, if needed, so that it covers a time range. Only
+     * the revisions after the currently covered range are asked to GXserver.
+     *
+     * @param client client connected to the server
+     * @param gxsConnection connection data
+     * @param from start of the range (inclusive)
+     * @param to end of the range (inclusive)
+     * @param listener listener for progress messages
+     * @param stats counters of the GXserver calls made
+     * @return false if the range starts before the store does, in which case
+     * it has to be asked to GXserver as a whole
+     * @throws IOException if GXserver or the store files fail
+     */
+    boolean update(TeamWorkService2Client client, GXSConnection gxsConnection, Date from, Date to, TaskListener listener, GXSFetchStats stats) throws IOException {
+        synchronized (fetchLock) {
+            Coverage current;
+            synchronized (this) {
+                load();
+                current = coverage;
+            }
+
+            if (current == null) {
+                long newest = fetch(client, gxsConnection, from, to, listener, stats);
+                saveCoverage(new Coverage(from.getTime(), Math.max(from.getTime(), newest)));
+                return true;
+            }
+
+            if (from.getTime() < current.from) {
+                return false;
+            }
+
+            if (to.getTime() > current.until) {
+                long newest = fetch(client, gxsConnection, new Date(current.until), to, listener, stats);
+                if (newest > current.until) {
+                    saveCoverage(new Coverage(current.from, newest));
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Gets the most recent revision in a range already covered by the store.
+     *
+     * @param from start of the range (inclusive)
+     * @param to end of the range (inclusive)
+     * @return null if there are no revisions in the range
+     */
+    synchronized GXSHistoryRecord findLatest(Date from, Date to) throws IOException {
+        load();
+        for (int i = index.size() - 1; i >= 0; i--) {
+            IndexEntry entry = index.get(i);
+            if (entry.isIn(from, to)) {
+                return read(entry);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the revisions in a range already covered by the store, most
+     * recent first. Records are read from disk as they are iterated.
+     *
+     * @param from start of the range (inclusive)
+     * @param to end of the range (inclusive)
+     * @return revisions in descending order
+     */
+    synchronized Iterable<GXSHistoryRecord> getRevisions(Date from, Date to) throws IOException {
+        load();
+        List<IndexEntry> entries = new ArrayList<>();
+        for (int i = index.size() - 1; i >= 0; i--) {
+            IndexEntry entry = index.get(i);
+            if (entry.isIn(from, to)) {
+                entries.add(entry);
+            }
+        }
+        return () -> new RecordIterator(entries);
+    }
+
+    /**
+     * Appends the revisions of a range to the file. New entries are only
+     * added to the index (under the monitor) when the query ends, so readers
+     * never see them half way. Must be called holding {@link #fetchLock}.
+     *
+     * @return the date of the newest revision returned by GXserver, or
+     * {@code Long.MIN_VALUE} if there were none
+     */
+    private long fetch(TeamWorkService2Client client, GXSConnection gxsConnection, Date from, Date to, TaskListener listener, GXSFetchStats stats) throws IOException {
+        Set<Integer> known = new HashSet<>();
+        List<IndexEntry> added = new ArrayList<>();
+        long newest = Long.MIN_VALUE;
+        long length;
+        synchronized (this) {
+            length = dataLength;
+        }
+
+        RevisionsQuery query = new RevisionsQuery(client, gxsConnection.getKbName(), gxsConnection.getKbVersion(), from, to);
+        stats.queryIssued();
+        try (OutputStream out = new FileOutputStream(dataFile, true)) {
+            for (RevisionInfo revision : query) {
+                newest = Math.max(newest, revision.date.getTime());
+
+                // the tail query overlaps the covered range by a second, and
+                // a previous fetch may have been interrupted half way
+                if (contains(revision.id) || !known.add(revision.id)) {
+                    continue;
+                }
+
+                byte[] line = mapper.writeValueAsBytes(GXSHistoryRecord.from(revision, stats));
+                out.write(line);
+                out.write('\n');
+                added.add(new IndexEntry(revision.id, revision.date.getTime(), length, line.length));
+                length += line.length + 1;
+            }
+        } finally {
+            // records written completely are kept even if the query failed
+            synchronized (this) {
+                index.addAll(added);
+                // GXserver returns revisions newest first
+                index.sort(Comparator.comparingInt(e -> e.id));
+                dataLength = length;
+                truncate(dataLength);
+            }
+        }
+
+        listener.getLogger().println("Added " + added.size() + " revisions to the local GXserver history");
+        return newest;
+    }
+
+    /**
+     * Looks for a revision in the index. Only called by the holder of
+     * {@link #fetchLock}, the only one that changes the index once loaded.
+     */
+    private boolean contains(int id) {
+        int low = 0;
+        int high = index.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = index.get(mid).id;
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+
+        File dir = dataFile.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Unable to create " + dir);
+        }
+
+        if (coverageFile.exists() && dataFile.exists()) {
+            coverage = mapper.readValue(coverageFile, Coverage.class);
+            loadIndex();
+        }
+        loaded = true;
+    }
+
+    private void loadIndex() throws IOException {
+        long offset = 0;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(dataFile))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+
+                byte[] bytes = line.toByteArray();
+                line.reset();
+                try {
+                    GXSHistoryRecord record = mapper.readValue(bytes, GXSHistoryRecord.class);
+                    index.add(new IndexEntry(record.id, record.date.getTime(), offset, bytes.length));
+                } catch (IOException ex) {
+                    // skip it, but keep the records after it
+                    LOGGER.log(Level.WARNING, "Skipping unreadable record at offset " + offset + " of " + dataFile, ex);
+                }
+                offset += bytes.length + 1;
+            }
+        }
+
+        dataLength = offset;
+        truncate(dataLength);
+        index.sort(Comparator.comparingInt(e -> e.id));
+    }
+
+    /**
+     * Drops anything after the last complete record (e.g. an interrupted
+     * write).
+     */
+    private void truncate(long length) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(dataFile, "rw")) {
+            if (file.length() > length) {
+                file.setLength(length);
+            }
+        }
+    }
+
+    private synchronized void saveCoverage(Coverage newCoverage) throws IOException {
+        AtomicFileWriter writer = new AtomicFileWriter(coverageFile.toPath(), StandardCharsets.UTF_8);
+        try {
+            writer.write(mapper.writeValueAsString(newCoverage));
+            writer.commit();
+        } finally {
+            writer.abort();
+        }
+        coverage = newCoverage;
+    }
+
+    private GXSHistoryRecord read(IndexEntry entry) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(dataFile, "r")) {
+            return read(file, entry);
+        }
+    }
+
+    private GXSHistoryRecord read(RandomAccessFile file, IndexEntry entry) throws IOException {
+        byte[] bytes = new byte[entry.length];
+        file.seek(entry.offset);
+        file.readFully(bytes);
+        return mapper.readValue(bytes, GXSHistoryRecord.class);
+    }
+
+    /**
+     * Reads records in small batches, so that no file stays open if the
+     * iteration is abandoned.
+     */
+    private final class RecordIterator implements Iterator<GXSHistoryRecord> {
+
+        private final List<IndexEntry> entries;
+        private int next;
+        private List<GXSHistoryRecord> batch = Collections.emptyList();
+        private int batchPosition;
+
+        RecordIterator(List<IndexEntry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return batchPosition < batch.size() || next < entries.size();
+        }
+
+        @Override
+        public GXSHistoryRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (batchPosition >= batch.size()) {
+                batch = readBatch();
+                batchPosition = 0;
+            }
+            return batch.get(batchPosition++);
+        }
+
+        private List<GXSHistoryRecord> readBatch() {
+            int end = Math.min(next + READ_BATCH_SIZE, entries.size());
+            List<GXSHistoryRecord> records = new ArrayList<>(end - next);
+            // records are only appended, so indexed ones can be read without locking
+            try (RandomAccessFile file = new RandomAccessFile(dataFile, "r")) {
+                for (; next < end; next++) {
+                    records.add(read(file, entries.get(next)));
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException("Error reading local GXserver history " + dataFile, ex);
+            }
+            return records;
+        }
+    }
+
+    private static final class IndexEntry {
+
+        private final int id;
+        private final long date;
+        private final long offset;
+        private final int length;
+
+        IndexEntry(int id, long date, long offset, int length) {
+            this.id = id;
+            this.date = date;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        boolean isIn(Date from, Date to) {
+            return date >= from.getTime() && date <= to.getTime();
+        }
+    }
+
+    /**
+     * Time range (in milliseconds, both inclusive) covered by the store.
+     */
+    public static final class Coverage {
+
+        public long from;
+        public long until;
+
+        public Coverage() {
+        }
+
+        Coverage(long from, long until) {
+            this.from = from;
+            this.until = until;
+        }
+    }
+}
@@ -0,0 +1,583 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Node;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.remoting.VirtualChannel;
+import hudson.util.AtomicFileWriter;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.MasterToSlaveFileCallable;
+import jenkins.model.Jenkins;
+import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.genexus.helpers.CredentialsHelper;
+
+/**
+ * Keeps track of the local KB working copies the plugin created in the
+ * agents (when they were last used, how big they are and which database
+ * they use) and evicts the least recently used ones when an agent goes over
+ * its disk budget.
+ * <p>
+ * Evicting a copy drops its database and deletes its directory. Only
+ * databases the plugin named itself are dropped, never one configured in
+ * the job. Copies in use by a running build are never evicted, and a build
+ * that wants a copy being evicted waits for the eviction to end. The
+ * databases of copies whose directory was deleted by other means are
+ * dropped too. The budget is set in GB with the {@code budget} system
+ * property; when it is 0 (the default) copies are tracked anyway, but
+ * nothing is evicted and no database is dropped, not even those of copies
+ * whose directory seems to be gone (it may just be on a drive that is not
+ * mounted right now).
+ * <p>
+ * Databases named like the plugin's ({@code GX_KB_*}) that no tracked copy
+ * uses (for example, left behind by older versions of the plugin) can be
+ * cleaned up too, by setting the {@code cleanupUnknownDatabases} system
+ * property. Each one found is reported in the cleanup log; it is only
+ * dropped if its data file was in a KB folder that no longer holds a KB,
+ * in an instance running in the agent.
+ *
+ * @author jlr
+ */
+final class GXSKbCopies {
+
+    static final long BUDGET_BYTES = Long.getLong(GXSKbCopies.class.getName() + ".budget", 0) * 1024 * 1024 * 1024;
+
+    static final boolean CLEANUP_UNKNOWN_DATABASES = Boolean.getBoolean(GXSKbCopies.class.getName() + ".cleanupUnknownDatabases");
+
+    private static final Logger LOGGER = Logger.getLogger(GXSKbCopies.class.getName());
+
+    private static final GXSKbCopies INSTANCE = new GXSKbCopies();
+
+    static GXSKbCopies get() {
+        return INSTANCE;
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ExecutorService sizeExecutor = Executors.newSingleThreadExecutor(
+            new NamingThreadFactory(new DaemonThreadFactory(), "GXserver KB copy size"));
+
+    private Map<String, Entry> entries;
+    private final Map<String, Set<String>> inUseByRun = new HashMap<>();
+    private final Set<String> evicting = new HashSet<>();
+
+    /**
+     * A tracked working copy. Public for serialization only.
+     */
+    public static class Entry {
+
+        public String node;
+        public String path;
+        public long lastUsed;
+        public long size;
+        public String job;
+        public String key;
+        public long revision;
+        public String dbServerInstance;
+        public String dbName;
+        public String dbCredentialsId;
+
+        String getId() {
+            return id(node, path);
+        }
+    }
+
+    private static String id(String node, String path) {
+        return node + "|" + path;
+    }
+
+    private File getFile() {
+        return new File(Jenkins.get().getRootDir(), "gxserver-kb-copies.json");
+    }
+
+    private Map<String, Entry> load() {
+        if (entries == null) {
+            entries = new HashMap<>();
+            File file = getFile();
+            if (file.exists()) {
+                try {
+                    List<Entry> list = mapper.readValue(file, new TypeReference<List<Entry>>() {
+                    });
+                    for (Entry entry : list) {
+                        entries.put(entry.getId(), entry);
+                    }
+                } catch (IOException ex) {
+                    LOGGER.log(Level.WARNING, "Could not read " + file, ex);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void save() {
+        File file = getFile();
+        try {
+            AtomicFileWriter writer = new AtomicFileWriter(file.toPath(), StandardCharsets.UTF_8);
+            try {
+                writer.write(mapper.writeValueAsString(new ArrayList<>(load().values())));
+                writer.commit();
+            } finally {
+                writer.abort();
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not write " + file, ex);
+        }
+    }
+
+    /**
+     * Marks a working copy as being used by a build, until it completes. If
+     * the copy is being evicted, waits for that to end first.
+     *
+     * @param run the build
+     * @param node node where the copy is
+     * @param workingDirectory the working copy
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized void inUse(Run<?, ?> run, Node node, FilePath workingDirectory) throws InterruptedException {
+        String id = id(node.getNodeName(), workingDirectory.getRemote());
+        while (evicting.contains(id)) {
+            wait();
+        }
+        inUseByRun.computeIfAbsent(run.getExternalizableId(), k -> new HashSet<>()).add(id);
+    }
+
+    /**
+     * Records a successful checkout/update of a working copy and updates its
+     * size in the background.
+     *
+     * @param run the build
+     * @param node node where the copy is
+     * @param workingDirectory the working copy
+     * @param key SCM key (server/KB/version) of the KB
+     * @param dbServerInstance SQL Server instance of the KB database (may be
+     * blank)
+     * @param dbName name of the KB database if the plugin just created it
+     * under a name of its own, or null to keep the one recorded
+     * @param dbConfigured whether the job configures the database name, in
+     * which case the database is not the plugin's to drop
+     * @param dbCredentialsId credentials to drop the database (may be blank)
+     */
+    void used(Run<?, ?> run, Node node, FilePath workingDirectory, String key, String dbServerInstance, String dbName,
+            boolean dbConfigured, String dbCredentialsId) {
+        Entry entry;
+        synchronized (this) {
+            String id = id(node.getNodeName(), workingDirectory.getRemote());
+            entry = load().computeIfAbsent(id, k -> new Entry());
+            entry.node = node.getNodeName();
+            entry.path = workingDirectory.getRemote();
+            entry.lastUsed = System.currentTimeMillis();
+            entry.job = run.getParent().getFullName();
+            entry.key = key;
+            entry.dbServerInstance = dbServerInstance;
+            entry.dbCredentialsId = dbCredentialsId;
+            if (dbConfigured) {
+                entry.dbName = null;
+            } else if (dbName != null) {
+                entry.dbName = dbName;
+            }
+            save();
+        }
+
+        sizeExecutor.submit(() -> {
+            try {
+                long size = workingDirectory.act(new SizeOf());
+                synchronized (this) {
+                    entry.size = size;
+                    save();
+                }
+            } catch (IOException | InterruptedException ex) {
+                LOGGER.log(Level.FINE, "Could not compute the size of " + workingDirectory, ex);
+            }
+        });
+    }
+
+    /**
+     * Records the revision a tracked working copy was brought to.
+     *
+     * @param node node where the copy is
+     * @param workingDirectory the working copy
+     * @param revision revision of the KB
+     */
+    synchronized void atRevision(Node node, FilePath workingDirectory, long revision) {
+        Entry entry = load().get(id(node.getNodeName(), workingDirectory.getRemote()));
+        if (entry != null && entry.revision != revision) {
+            entry.revision = revision;
+            save();
+        }
+    }
+
+    synchronized void release(Run<?, ?> run) {
+        inUseByRun.remove(run.getExternalizableId());
+    }
+
+    /**
+     * @return the tracked copies
+     */
+    synchronized List<Entry> getEntries() {
+        return new ArrayList<>(load().values());
+    }
+
+    synchronized boolean isInUse(Entry entry) {
+        String id = entry.getId();
+        for (Set<String> ids : inUseByRun.values()) {
+            if (ids.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the copy is in use by a build or being evicted
+     */
+    synchronized boolean isBusy(Entry entry) {
+        return evicting.contains(entry.getId()) || isInUse(entry);
+    }
+
+    /**
+     * Claims a copy for eviction, so that builds wait for it to be gone
+     * instead of using it meanwhile. Must be followed by
+     * {@link #unclaim(Entry)}.
+     *
+     * @return false if the copy is in use, being updated or already claimed
+     */
+    private synchronized boolean claim(Entry entry) {
+        if (isBusy(entry) || GXSKbWarmer.isWarming(entry.node, entry.path)) {
+            return false;
+        }
+        evicting.add(entry.getId());
+        return true;
+    }
+
+    private synchronized void unclaim(Entry entry) {
+        evicting.remove(entry.getId());
+        notifyAll();
+    }
+
+    /**
+     * Picks the copies of a node to evict to get within a budget, least
+     * recently used first.
+     *
+     * @param copies copies in a node
+     * @param budget budget in bytes
+     * @param busy copies that can't be evicted now
+     * @return copies to evict, in order
+     */
+    static List<Entry> selectForEviction(List<Entry> copies, long budget, Predicate<Entry> busy) {
+        List<Entry> sorted = new ArrayList<>(copies);
+        sorted.sort(Comparator.comparingLong(c -> c.lastUsed));
+        long total = sorted.stream().mapToLong(c -> c.size).sum();
+
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : sorted) {
+            if (total <= budget) {
+                break;
+            }
+            if (!busy.test(entry)) {
+                result.add(entry);
+                total -= entry.size;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evicts least recently used copies from the agents that are over
+     * budget.
+     *
+     * @param listener listener for progress messages
+     */
+    void evict(TaskListener listener) throws InterruptedException {
+        if (BUDGET_BYTES <= 0) {
+            return;
+        }
+
+        Map<String, List<Entry>> byNode = new HashMap<>();
+        synchronized (this) {
+            for (Entry entry : load().values()) {
+                byNode.computeIfAbsent(entry.node, k -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        for (Map.Entry<String, List<Entry>> e : byNode.entrySet()) {
+            Node node = e.getKey().isEmpty() ? Jenkins.get() : Jenkins.get().getNode(e.getKey());
+            if (node == null || node.getChannel() == null) {
+                continue;
+            }
+
+            List<Entry> candidates = selectForEviction(e.getValue(), BUDGET_BYTES,
+                    c -> isBusy(c) || GXSKbWarmer.isWarming(c.node, c.path));
+            for (Entry entry : candidates) {
+                if (!claim(entry)) {
+                    continue;
+                }
+
+                try {
+                    listener.getLogger().println("Evicting KB working copy " + entry.path + " from " + node.getDisplayName());
+                    evict(node, entry, listener);
+                    synchronized (this) {
+                        load().remove(entry.getId());
+                        save();
+                    }
+                } catch (IOException ex) {
+                    listener.error("Could not evict " + entry.path + ": " + ex.getMessage());
+                } finally {
+                    unclaim(entry);
+                }
+            }
+        }
+    }
+
+    private void evict(Node node, Entry entry, TaskListener listener) throws IOException, InterruptedException {
+        if (StringUtils.isNotBlank(entry.dbName)) {
+            dropDatabase(node, entry, listener);
+        }
+
+        new FilePath(node.getChannel(), entry.path).deleteRecursive();
+    }
+
+    private void dropDatabase(Node node, Entry entry, TaskListener listener) throws IOException, InterruptedException {
+        GXSKbDatabases.drop(node, entry.dbServerInstance, entry.dbName, getDbCredentials(entry), listener);
+    }
+
+    private static StandardUsernamePasswordCredentials getDbCredentials(Entry entry) {
+        if (StringUtils.isBlank(entry.dbCredentialsId)) {
+            return null;
+        }
+        Item job = Jenkins.get().getItemByFullName(entry.job);
+        return CredentialsHelper.getUsernameCredentials(job, entry.dbCredentialsId, null);
+    }
+
+    /**
+     * Looks for {@code GX_KB_*} databases no tracked copy (or job
+     * configuration) uses, in the SQL Server instances used by tracked
+     * copies, and drops the ones whose KB folder no longer holds a KB. Only
+     * runs if {@link #CLEANUP_UNKNOWN_DATABASES} is set.
+     *
+     * @param listener listener for progress messages
+     */
+    void cleanupUnknownDatabases(TaskListener listener) throws InterruptedException {
+        if (!CLEANUP_UNKNOWN_DATABASES) {
+            return;
+        }
+
+        Set<String> known = new HashSet<>();
+        Map<String, Entry> servers = new LinkedHashMap<>();
+        synchronized (this) {
+            for (Entry entry : load().values()) {
+                if (entry.dbName != null) {
+                    known.add(entry.dbName.toLowerCase(Locale.ENGLISH));
+                    servers.putIfAbsent(entry.node + "|" + StringUtils.defaultString(entry.dbServerInstance).toLowerCase(Locale.ENGLISH), entry);
+                }
+            }
+        }
+        for (Job<?, ?> job : Jenkins.get().allItems(Job.class)) {
+            for (GeneXusServerSCM scm : GeneXusServerSCM.getGeneXusServerSCMs(job)) {
+                if (StringUtils.isNotBlank(scm.getKbDbName())) {
+                    known.add(scm.getKbDbName().toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+
+        for (Entry server : servers.values()) {
+            Node node = server.node.isEmpty() ? Jenkins.get() : Jenkins.get().getNode(server.node);
+            if (node == null || node.getChannel() == null) {
+                continue;
+            }
+
+            List<GXSKbDatabases.KbDatabase> databases;
+            try {
+                databases = GXSKbDatabases.listIdle(node, server.dbServerInstance, getDbCredentials(server), listener);
+            } catch (IOException ex) {
+                listener.error("Could not list the KB databases of " + server.dbServerInstance + " on " + node.getDisplayName() + ": " + ex.getMessage());
+                continue;
+            }
+
+            for (GXSKbDatabases.KbDatabase database : databases) {
+                if (known.contains(database.name.toLowerCase(Locale.ENGLISH))) {
+                    continue;
+                }
+
+                try {
+                    if (!isOrphaned(node, server.dbServerInstance, database)) {
+                        listener.getLogger().println("Keeping unknown KB database " + database.name + " (" + database.dataFile + ")");
+                        continue;
+                    }
+
+                    listener.getLogger().println("Dropping unknown KB database " + database.name + " of deleted KB (" + database.dataFile + ")");
+                    GXSKbDatabases.drop(node, server.dbServerInstance, database.name, getDbCredentials(server), listener);
+                } catch (IOException ex) {
+                    listener.error("Could not clean up unknown KB database " + database.name + ": " + ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return whether the database's data file was in a KB folder, in the
+     * agent, that no longer holds a KB
+     */
+    private static boolean isOrphaned(Node node, String serverInstance, GXSKbDatabases.KbDatabase database) throws IOException, InterruptedException {
+        if (database.inDefaultFolder || !GXSKbDatabases.isLocal(serverInstance)) {
+            // can't tell which KB it belongs to
+            return false;
+        }
+
+        FilePath folder = new FilePath(node.getChannel(), database.dataFile).getParent();
+        return folder != null && !GXSReferenceKbCache.containsKb(folder);
+    }
+
+    /**
+     * Drops the databases of tracked copies whose directory is gone (for
+     * example because the workspace was wiped or the job deleted) and stops
+     * tracking them. Does nothing unless a budget is set.
+     *
+     * @param listener listener for progress messages
+     */
+    void dropOrphans(TaskListener listener) throws InterruptedException {
+        if (BUDGET_BYTES <= 0) {
+            return;
+        }
+
+        List<Entry> all;
+        synchronized (this) {
+            all = new ArrayList<>(load().values());
+        }
+
+        for (Entry entry : all) {
+            Node node = entry.node.isEmpty() ? Jenkins.get() : Jenkins.get().getNode(entry.node);
+            if (node == null || node.getChannel() == null || !claim(entry)) {
+                continue;
+            }
+
+            try {
+                if (new FilePath(node.getChannel(), entry.path).exists()) {
+                    continue;
+                }
+                if (StringUtils.isNotBlank(entry.dbName)) {
+                    listener.getLogger().println("Dropping database " + entry.dbName + " of deleted KB " + entry.path);
+                    dropDatabase(node, entry, listener);
+                }
+                synchronized (this) {
+                    load().remove(entry.getId());
+                    save();
+                }
+            } catch (IOException ex) {
+                listener.error("Could not drop database of " + entry.path + ": " + ex.getMessage());
+            } finally {
+                unclaim(entry);
+            }
+        }
+    }
+
+    private static final class SizeOf extends MasterToSlaveFileCallable<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Long invoke(File f, VirtualChannel channel) throws IOException {
+            long[] size = new long[1];
+            Files.walkFileTree(f.toPath(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    size[0] += attrs.size();
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            return size[0];
+        }
+    }
+
+    @Extension
+    public static final class Releaser extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onCompleted(Run<?, ?> run, TaskListener listener) {
+            get().release(run);
+        }
+    }
+
+    /**
+     * Periodically drops the databases of deleted copies and evicts copies
+     * from agents over budget (if a budget is set), and cleans up unknown
+     * databases (if enabled).
+     */
+    @Extension
+    public static final class Eviction extends AsyncPeriodicWork {
+
+        public Eviction() {
+            super("GXserver KB copies cleanup");
+        }
+
+        @Override
+        public long getRecurrencePeriod() {
+            return TimeUnit.HOURS.toMillis(1);
+        }
+
+        @Override
+        protected void execute(TaskListener listener) throws IOException, InterruptedException {
+            GXSKbCopies.get().dropOrphans(listener);
+            GXSKbCopies.get().evict(listener);
+            GXSKbCopies.get().cleanupUnknownDatabases(listener);
+        }
+    }
+}
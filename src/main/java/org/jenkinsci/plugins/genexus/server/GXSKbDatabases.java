@@ -0,0 +1,378 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.cloudbees.plugins.credentials.common.StandardUsernamePasswordCredentials;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Util;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.util.ArgumentListBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import jenkins.model.Jenkins;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.filefilter.WildcardFileFilter;
+import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Names, drops, detaches and attaches the SQL Server databases of local
+ * KBs.
+ * <p>
+ * Unless a KB DB name is configured, a KB's database is named after the KB
+ * and the working directory (and node) it belongs to, so that the same
+ * working directory always uses the same database. A leftover database with
+ * that name (from a KB that was deleted from disk) is dropped before
+ * checking the KB out again, instead of piling up a new one every time.
+ * Every drop is logged, along with the sessions it disconnects.
+ * <p>
+ * A KB whose database files are in the KB folder can be copied elsewhere
+ * by detaching its database while the files are copied, and the copy given
+ * a database of its own by pointing its {@value #CONNECTION_FILE} to a new
+ * name and attaching the copied files under it.
+ *
+ * @author jlr
+ */
+final class GXSKbDatabases {
+
+    /**
+     * File of a KB that holds the name of its database.
+     */
+    static final String CONNECTION_FILE = "knowledgebase.connection";
+
+    private static final Logger LOGGER = Logger.getLogger(GXSKbDatabases.class.getName());
+
+    private static final Pattern DB_NAME_PATTERN = Pattern.compile("(<DBName>)([^<]*)(</DBName>)", Pattern.CASE_INSENSITIVE);
+
+    private GXSKbDatabases() {
+    }
+
+    /**
+     * @param kbName name of the KB
+     * @param node node where the working directory is
+     * @param workingDirectory KB working directory
+     * @return the database name for the working directory
+     */
+    static String getDefaultName(String kbName, Node node, FilePath workingDirectory) {
+        // the instance id keeps controllers sharing a SQL Server apart
+        String hash = Util.getDigestOf(Jenkins.get().getLegacyInstanceId() + "|" + node.getNodeName()
+                + "|" + workingDirectory.getRemote().toLowerCase(Locale.ENGLISH));
+        return "GX_KB_" + kbName + "_" + hash.substring(0, 16);
+    }
+
+    /**
+     * Drops a database, if it exists, running sqlcmd in the given node.
+     *
+     * @param node node to run sqlcmd in
+     * @param serverInstance SQL Server instance (blank for the default one)
+     * @param dbName database name
+     * @param credentials SQL Server credentials, or null to use integrated
+     * security
+     * @param listener listener for the sqlcmd output
+     * @throws IOException if sqlcmd can't be run or fails
+     */
+    static void drop(Node node, String serverInstance, String dbName, StandardUsernamePasswordCredentials credentials,
+            TaskListener listener) throws IOException, InterruptedException {
+        String instance = StringUtils.defaultIfBlank(serverInstance, ".");
+        listener.getLogger().println("Dropping KB database " + dbName + " (if it exists) from " + instance + " on " + node.getDisplayName());
+        LOGGER.log(Level.INFO, "Dropping KB database {0} (if it exists) from {1} on {2}",
+                new Object[]{dbName, instance, node.getDisplayName()});
+
+        String name = quoteName(dbName);
+        // lists the sessions that are about to be disconnected
+        sqlcmd(node, serverInstance, credentials, "SET NOCOUNT ON; IF DB_ID(" + quoteString(dbName) + ") IS NOT NULL "
+                + "BEGIN SELECT session_id, login_name, host_name, program_name FROM sys.dm_exec_sessions "
+                + "WHERE database_id = DB_ID(" + quoteString(dbName) + "); "
+                + "ALTER DATABASE " + name + " SET SINGLE_USER WITH ROLLBACK IMMEDIATE; "
+                + "DROP DATABASE " + name + " END", "drop database " + dbName, listener);
+    }
+
+    /**
+     * Lists the databases named like the ones the plugin creates for KBs
+     * ({@code GX_KB_*}) that are more than a day old and not in use.
+     *
+     * @param node node to run sqlcmd in
+     * @param serverInstance SQL Server instance (blank for the default one)
+     * @param credentials SQL Server credentials, or null to use integrated
+     * security
+     * @param listener listener for errors
+     * @return the databases
+     * @throws IOException if sqlcmd can't be run or fails
+     */
+    static List<KbDatabase> listIdle(Node node, String serverInstance, StandardUsernamePasswordCredentials credentials,
+            TaskListener listener) throws IOException, InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sqlcmd(node, serverInstance, credentials, "SET NOCOUNT ON; "
+                + "SELECT d.name + '|' + f.physical_name + '|' + CASE WHEN f.physical_name LIKE "
+                + "ISNULL(CAST(SERVERPROPERTY('InstanceDefaultDataPath') AS nvarchar(260)), '') + '%' THEN '1' ELSE '0' END "
+                + "FROM sys.databases d "
+                + "JOIN sys.master_files f ON f.database_id = d.database_id AND f.file_id = 1 "
+                + "WHERE d.name LIKE 'GX[_]KB[_]%' AND d.create_date < DATEADD(day, -1, GETDATE()) "
+                + "AND NOT EXISTS (SELECT 1 FROM sys.dm_exec_sessions s WHERE s.database_id = d.database_id)",
+                "list KB databases", out, listener, "-h", "-1", "-W");
+
+        List<KbDatabase> result = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8.name()).split("\\r?\\n")) {
+            String[] fields = line.trim().split("\\|");
+            if (fields.length == 3) {
+                result.add(new KbDatabase(fields[0], fields[1], "1".equals(fields[2])));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param serverInstance SQL Server instance (blank for the default one)
+     * @return whether the instance runs in the node sqlcmd runs in
+     */
+    static boolean isLocal(String serverInstance) {
+        String host = StringUtils.substringBefore(StringUtils.defaultIfBlank(serverInstance, "."), "\\").trim();
+        return host.equals(".") || host.equalsIgnoreCase("(local)") || host.equalsIgnoreCase("localhost");
+    }
+
+    /**
+     * Detaches the database of a KB whose database files are in the KB
+     * folder, so that the files can be copied. The database is attached
+     * back when the result is closed.
+     *
+     * @param node node where the KB is
+     * @param serverInstance SQL Server instance (blank for the default one)
+     * @param credentials SQL Server credentials, or null to use integrated
+     * security
+     * @param kbDirectory KB folder
+     * @param listener listener for the sqlcmd output
+     * @return the detached database
+     * @throws IOException if the database can't be told or detached
+     */
+    static Detached detach(Node node, String serverInstance, StandardUsernamePasswordCredentials credentials,
+            FilePath kbDirectory, TaskListener listener) throws IOException, InterruptedException {
+        String dbName = getConnectionDbName(kbDirectory);
+        if (dbName == null) {
+            throw new IOException("could not find the database name of the KB in " + kbDirectory);
+        }
+        List<String> files = findFiles(kbDirectory);
+        if (files.isEmpty()) {
+            throw new IOException("could not find the database files of the KB in " + kbDirectory);
+        }
+
+        String name = quoteName(dbName);
+        listener.getLogger().println("Detaching KB database " + dbName);
+        sqlcmd(node, serverInstance, credentials, "ALTER DATABASE " + name + " SET SINGLE_USER WITH ROLLBACK IMMEDIATE; "
+                + "EXEC sp_detach_db @dbname = " + quoteString(dbName), "detach database " + dbName, listener);
+        return new Detached(node, serverInstance, credentials, dbName, files, listener);
+    }
+
+    /**
+     * Gives a copied KB a database of its own: points the KB to the given
+     * database name and attaches the copied database files under it.
+     *
+     * @param node node where the KB is
+     * @param serverInstance SQL Server instance (blank for the default one)
+     * @param credentials SQL Server credentials, or null to use integrated
+     * security
+     * @param kbDirectory KB folder
+     * @param dbName name of the new database (no database with that name
+     * may exist)
+     * @param listener listener for the sqlcmd output
+     * @throws IOException if the KB can't be pointed to the database or the
+     * files can't be attached
+     */
+    static void attachCopy(Node node, String serverInstance, StandardUsernamePasswordCredentials credentials,
+            FilePath kbDirectory, String dbName, TaskListener listener) throws IOException, InterruptedException {
+        List<String> files = findFiles(kbDirectory);
+        if (files.isEmpty()) {
+            throw new IOException("could not find the database files of the KB in " + kbDirectory);
+        }
+
+        setConnectionDbName(kbDirectory, dbName);
+        listener.getLogger().println("Attaching KB database " + dbName);
+        attach(node, serverInstance, credentials, dbName, files, listener);
+    }
+
+    private static void attach(Node node, String serverInstance, StandardUsernamePasswordCredentials credentials,
+            String dbName, List<String> files, TaskListener listener) throws IOException, InterruptedException {
+        StringBuilder query = new StringBuilder("CREATE DATABASE ").append(quoteName(dbName)).append(" ON ");
+        for (int i = 0; i < files.size(); i++) {
+            query.append(i > 0 ? ", " : "").append("(FILENAME = ").append(quoteString(files.get(i))).append(")");
+        }
+        query.append(" FOR ATTACH; ALTER DATABASE ").append(quoteName(dbName)).append(" SET MULTI_USER");
+        sqlcmd(node, serverInstance, credentials, query.toString(), "attach database " + dbName, listener);
+    }
+
+    /**
+     * @param kbDirectory KB folder
+     * @return name of the database the KB uses, or null if it can't be told
+     */
+    static String getConnectionDbName(FilePath kbDirectory) throws IOException, InterruptedException {
+        FilePath file = kbDirectory.child(CONNECTION_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+
+        Matcher matcher = DB_NAME_PATTERN.matcher(readConnection(file));
+        return matcher.find() ? StringEscapeUtils.unescapeXml(matcher.group(2).trim()) : null;
+    }
+
+    private static void setConnectionDbName(FilePath kbDirectory, String dbName) throws IOException, InterruptedException {
+        FilePath file = kbDirectory.child(CONNECTION_FILE);
+        if (!file.exists()) {
+            throw new IOException("could not find " + file);
+        }
+
+        Matcher matcher = DB_NAME_PATTERN.matcher(readConnection(file));
+        if (!matcher.find()) {
+            throw new IOException("could not find the database name in " + file);
+        }
+        StringBuffer content = new StringBuffer();
+        matcher.appendReplacement(content, "$1" + Matcher.quoteReplacement(StringEscapeUtils.escapeXml(dbName)) + "$3");
+        matcher.appendTail(content);
+        file.write(content.toString(), "UTF-8");
+    }
+
+    private static String readConnection(FilePath file) throws IOException, InterruptedException {
+        try (InputStream in = file.read()) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * @return paths of the database files (data and log) in the KB folder
+     */
+    private static List<String> findFiles(FilePath kbDirectory) throws IOException, InterruptedException {
+        List<String> files = new ArrayList<>();
+        for (FilePath file : kbDirectory.list(new WildcardFileFilter(new String[]{"*.mdf", "*.ldf"}, IOCase.INSENSITIVE))) {
+            files.add(file.getRemote());
+        }
+        return files;
+    }
+
+    private static String quoteName(String name) {
+        return "[" + name.replace("]", "]]") + "]";
+    }
+
+    private static String quoteString(String value) {
+        return "N'" + value.replace("'", "''") + "'";
+    }
+
+    private static void sqlcmd(Node node, String serverInstance, StandardUsernamePasswordCredentials credentials,
+            String query, String what, TaskListener listener) throws IOException, InterruptedException {
+        sqlcmd(node, serverInstance, credentials, query, what, listener.getLogger(), listener);
+    }
+
+    /**
+     * Runs a query with sqlcmd. The password (if any) is passed in the
+     * environment, so that it doesn't show in the command line.
+     */
+    private static void sqlcmd(Node node, String serverInstance, StandardUsernamePasswordCredentials credentials,
+            String query, String what, OutputStream out, TaskListener listener, String... options) throws IOException, InterruptedException {
+        ArgumentListBuilder args = new ArgumentListBuilder("sqlcmd", "-b");
+        args.add("-S", StringUtils.defaultIfBlank(serverInstance, "."));
+        args.add(options);
+
+        Launcher.ProcStarter starter = node.createLauncher(listener).launch();
+        if (credentials != null) {
+            args.add("-U", credentials.getUsername());
+            starter.envs("SQLCMDPASSWORD=" + credentials.getPassword().getPlainText());
+        } else {
+            args.add("-E");
+        }
+        args.add("-Q", query);
+
+        int exitCode = starter.cmds(args).stdout(out).stderr(listener.getLogger()).join();
+        if (exitCode != 0) {
+            throw new IOException("could not " + what + " (sqlcmd exit code " + exitCode + ")");
+        }
+    }
+
+    /**
+     * A database found by {@link #listIdle}.
+     */
+    static final class KbDatabase {
+
+        final String name;
+        /**
+         * Path of the data file, in the SQL Server machine.
+         */
+        final String dataFile;
+        /**
+         * Whether the data file is in the instance's default data folder
+         * (as opposed to a KB folder).
+         */
+        final boolean inDefaultFolder;
+
+        KbDatabase(String name, String dataFile, boolean inDefaultFolder) {
+            this.name = name;
+            this.dataFile = dataFile;
+            this.inDefaultFolder = inDefaultFolder;
+        }
+    }
+
+    /**
+     * A detached KB database, attached back when closed.
+     */
+    static final class Detached implements AutoCloseable {
+
+        private final Node node;
+        private final String serverInstance;
+        private final StandardUsernamePasswordCredentials credentials;
+        private final String dbName;
+        private final List<String> files;
+        private final TaskListener listener;
+
+        private Detached(Node node, String serverInstance, StandardUsernamePasswordCredentials credentials,
+                String dbName, List<String> files, TaskListener listener) {
+            this.node = node;
+            this.serverInstance = serverInstance;
+            this.credentials = credentials;
+            this.dbName = dbName;
+            this.files = files;
+            this.listener = listener;
+        }
+
+        /**
+         * Attaches the database back.
+         *
+         * @throws IOException if the database can't be attached, leaving
+         * the KB without its database
+         */
+        @Override
+        public void close() throws IOException, InterruptedException {
+            listener.getLogger().println("Attaching KB database " + dbName);
+            attach(node, serverInstance, credentials, dbName, files, listener);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Util;
+import hudson.model.Node;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.util.AtomicFileWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+
+/**
+ * Local KB working copies shared by all the jobs building the same
+ * server/KB/version (with the same KB database settings) on an agent.
+ * <p>
+ * A build leases a copy when it checks out and keeps it until it completes,
+ * so that nobody else opens the same KB meanwhile. Each agent keeps up to
+ * {@link #MAX_COPIES} copies of a KB under {@code gxserver-kb-pool} in its
+ * root directory; builds wait (first come, first served) when all of them
+ * are leased, for up to {@link #ACQUIRE_TIMEOUT_MINUTES}.
+ * <p>
+ * Leases are saved in {@code gxserver-kb-pool.json} in JENKINS_HOME, so
+ * that a build resumed after a restart keeps its copy. Leases of builds
+ * that are no longer running are dropped when the file is read.
+ *
+ * @author jlr
+ */
+final class GXSKbPool {
+
+    /**
+     * Maximum number of working copies of a KB per agent.
+     */
+    static final int MAX_COPIES = Math.max(1, Integer.getInteger(GXSKbPool.class.getName() + ".maxCopies", 1));
+
+    /**
+     * Time (in minutes) a build waits for a working copy before failing.
+     */
+    static final long ACQUIRE_TIMEOUT_MINUTES = Long.getLong(GXSKbPool.class.getName() + ".acquireTimeout", 120);
+
+    static final String DIR_NAME = "gxserver-kb-pool";
+
+    private static final Logger LOGGER = Logger.getLogger(GXSKbPool.class.getName());
+
+    private static final GXSKbPool INSTANCE = new GXSKbPool();
+
+    static GXSKbPool get() {
+        return INSTANCE;
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Copies> copiesById = new HashMap<>();
+    private Map<String, List<Lease>> leasesByRun;
+
+    private GXSKbPool() {
+    }
+
+    private static File getFile() {
+        return new File(Jenkins.get().getRootDir(), "gxserver-kb-pool.json");
+    }
+
+    /**
+     * Reads the saved leases the first time, keeping only those of builds
+     * still running.
+     */
+    private Map<String, List<Lease>> load() {
+        if (leasesByRun == null) {
+            leasesByRun = new HashMap<>();
+            File file = getFile();
+            if (file.exists()) {
+                try {
+                    List<Lease> list = mapper.readValue(file, new TypeReference<List<Lease>>() {
+                    });
+                    for (Lease lease : list) {
+                        restore(lease);
+                    }
+                } catch (IOException ex) {
+                    LOGGER.log(Level.WARNING, "Could not read " + file, ex);
+                }
+                save();
+            }
+        }
+        return leasesByRun;
+    }
+
+    private void restore(Lease lease) {
+        Run<?, ?> run = Run.fromExternalizableId(lease.run);
+        if (run == null || !run.isBuilding()) {
+            return;
+        }
+
+        Copies copies = copiesById.computeIfAbsent(lease.id, k -> new Copies());
+        if (!copies.restore(lease.index)) {
+            LOGGER.log(Level.WARNING, "Dropping lease of KB working copy {0} by {1}: no longer in the pool",
+                    new Object[]{lease.path, lease.run});
+            return;
+        }
+        leasesByRun.computeIfAbsent(lease.run, k -> new ArrayList<>()).add(lease);
+    }
+
+    private void save() {
+        List<Lease> all = new ArrayList<>();
+        load().values().forEach(all::addAll);
+
+        File file = getFile();
+        try {
+            AtomicFileWriter writer = new AtomicFileWriter(file.toPath(), StandardCharsets.UTF_8);
+            try {
+                writer.write(mapper.writeValueAsString(all));
+                writer.commit();
+            } finally {
+                writer.abort();
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not write " + file, ex);
+        }
+    }
+
+    /**
+     * Leases a working copy of a KB for a build, waiting for one to be
+     * available if necessary. A build that already holds a copy of the KB
+     * gets the same one.
+     *
+     * @param run the build
+     * @param node node where the build runs
+     * @param poolKey identifies the KB and its database settings (copies
+     * are only shared by builds with the same key)
+     * @param listener listener for progress messages
+     * @return the working directory of the leased copy
+     * @throws IOException if the node has no root directory or no copy was
+     * released in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    FilePath acquire(Run<?, ?> run, Node node, String poolKey, TaskListener listener) throws IOException, InterruptedException {
+        FilePath root = node.getRootPath();
+        if (root == null) {
+            throw new IOException("Node " + node.getDisplayName() + " is offline");
+        }
+
+        String name = Util.getDigestOf(poolKey);
+        String id = node.getNodeName() + "/" + name;
+        Copies copies;
+        synchronized (this) {
+            Lease lease = findLease(run, id);
+            if (lease != null) {
+                return root.child(DIR_NAME).child(name).child(Integer.toString(lease.index));
+            }
+            copies = copiesById.computeIfAbsent(id, k -> new Copies());
+        }
+
+        if (!copies.available.tryAcquire()) {
+            listener.getLogger().println("Waiting up to " + ACQUIRE_TIMEOUT_MINUTES + " minutes for a working copy of the KB"
+                    + " to be released by " + String.join(", ", getHolders(id)) + " (abort this build to stop waiting)");
+            try {
+                if (!copies.available.tryAcquire(ACQUIRE_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                    throw new AbortException("No working copy of the KB was released in " + ACQUIRE_TIMEOUT_MINUTES + " minutes");
+                }
+            } catch (InterruptedException ex) {
+                listener.getLogger().println("Stopped waiting for a working copy of the KB");
+                throw ex;
+            }
+        }
+
+        synchronized (this) {
+            int index = copies.take();
+            FilePath path = root.child(DIR_NAME).child(name).child(Integer.toString(index));
+            load().computeIfAbsent(run.getExternalizableId(), k -> new ArrayList<>())
+                    .add(new Lease(run.getExternalizableId(), id, index, path.getRemote()));
+            save();
+            listener.getLogger().println("Using KB working copy " + path);
+            return path;
+        }
+    }
+
+    /**
+     * @return the builds holding copies with the given id
+     */
+    private synchronized Set<String> getHolders(String id) {
+        Set<String> holders = new LinkedHashSet<>();
+        for (List<Lease> leases : load().values()) {
+            for (Lease lease : leases) {
+                if (lease.id.equals(id)) {
+                    holders.add(lease.run);
+                }
+            }
+        }
+        return holders;
+    }
+
+    /**
+     * @param run a build
+     * @param poolKey identifies the KB and its database settings
+     * @return path of the working copy of the KB leased by the build, or null
+     */
+    synchronized String getLeasedPath(Run<?, ?> run, String poolKey) {
+        String suffix = "/" + Util.getDigestOf(poolKey);
+        for (Lease lease : getLeases(run)) {
+            if (lease.id.endsWith(suffix)) {
+                return lease.path;
+            }
+        }
+        return null;
+    }
+
+    private List<Lease> getLeases(Run<?, ?> run) {
+        return load().getOrDefault(run.getExternalizableId(), Collections.emptyList());
+    }
+
+    private Lease findLease(Run<?, ?> run, String id) {
+        for (Lease lease : getLeases(run)) {
+            if (lease.id.equals(id)) {
+                return lease;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns all the working copies leased by a build.
+     *
+     * @param run the build
+     */
+    synchronized void release(Run<?, ?> run) {
+        List<Lease> leases = load().remove(run.getExternalizableId());
+        if (leases == null) {
+            return;
+        }
+
+        for (Lease lease : leases) {
+            Copies copies = copiesById.get(lease.id);
+            copies.give(lease.index);
+            copies.available.release();
+            LOGGER.log(Level.FINE, "{0} released KB working copy {1}", new Object[]{run, lease.path});
+        }
+        save();
+    }
+
+    private static final class Copies {
+
+        private final Semaphore available = new Semaphore(MAX_COPIES, true);
+        private final boolean[] leased = new boolean[MAX_COPIES];
+
+        /**
+         * Picks the lowest free copy, so that the same few copies are reused.
+         */
+        int take() {
+            for (int i = 0; i < leased.length; i++) {
+                if (!leased[i]) {
+                    leased[i] = true;
+                    return i;
+                }
+            }
+            throw new IllegalStateException("No free KB working copy");
+        }
+
+        void give(int index) {
+            leased[index] = false;
+        }
+
+        /**
+         * Takes a copy leased before a restart.
+         *
+         * @return false if the copy is no longer part of the pool
+         */
+        boolean restore(int index) {
+            if (index >= leased.length || leased[index] || !available.tryAcquire()) {
+                return false;
+            }
+            leased[index] = true;
+            return true;
+        }
+    }
+
+    /**
+     * A copy leased by a build. Public for serialization only.
+     */
+    public static final class Lease {
+
+        public String run;
+        public String id;
+        public int index;
+        public String path;
+
+        public Lease() {
+        }
+
+        Lease(String run, String id, int index, String path) {
+            this.run = run;
+            this.id = id;
+            this.index = index;
+            this.path = path;
+        }
+    }
+
+    @Extension
+    public static final class Releaser extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onCompleted(Run<?, ?> run, TaskListener listener) {
+            get().release(run);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.FilePath;
+import hudson.Util;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import jenkins.MasterToSlaveFileCallable;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Versioned snapshots of a local KB (including its database files, which
+ * must be in the KB folder) kept in a location shared by the agents. The
+ * database is detached while a snapshot is taken, and a restored KB gets a
+ * database of its own (see {@link GXSKbDatabases}).
+ * <p>
+ * Snapshots are zip files named after the revision the KB was at, in a
+ * folder per server/KB/version. They are written under a temporary name and
+ * renamed when complete, so a snapshot never changes once it is visible.
+ * That allows restoring to resume an interrupted download from where it
+ * stopped. Downloads into an agent directory are done one at a time, and
+ * each restore unzips its own copy of the archive. All file access happens
+ * on the agent, which is the one that sees the shared location.
+ *
+ * @author jlr
+ */
+final class GXSKbSnapshots {
+
+    /**
+     * Minimum age of the newest snapshot before a new one is taken.
+     */
+    static final long INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(
+            Long.getLong(GXSKbSnapshots.class.getName() + ".interval", 24));
+
+    /**
+     * Number of snapshots kept per server/KB/version.
+     */
+    static final int KEEP = Integer.getInteger(GXSKbSnapshots.class.getName() + ".keep", 2);
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("r(\\d+)\\.zip");
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final String directory;
+
+    /**
+     * @param location shared location, as seen by the agents
+     * @param key SCM key (server/KB/version)
+     * @param localKbVersion working version of the local KB (may be blank)
+     */
+    GXSKbSnapshots(String location, String key, String localKbVersion) {
+        this.directory = new File(location, Util.getDigestOf(key + "\n" + StringUtils.defaultString(localKbVersion))).getPath();
+    }
+
+    /**
+     * @param workingDirectory KB working directory
+     * @param revision revision the KB is at
+     * @return whether the newest snapshot is older than
+     * {@link #INTERVAL_MILLIS} and behind the given revision
+     */
+    boolean isDue(FilePath workingDirectory, long revision) throws IOException, InterruptedException {
+        return workingDirectory.act(new IsDue(directory, revision));
+    }
+
+    /**
+     * Takes a snapshot of the working directory if the newest one is older
+     * than {@link #INTERVAL_MILLIS} and behind the given revision. The
+     * working directory's database must be detached.
+     *
+     * @param workingDirectory KB working directory, just updated
+     * @param revision revision the KB is at
+     * @param listener listener for progress messages
+     */
+    void save(FilePath workingDirectory, long revision, TaskListener listener) throws IOException, InterruptedException {
+        String saved = workingDirectory.act(new Save(directory, revision));
+        if (saved != null) {
+            listener.getLogger().println("Saved KB snapshot " + saved);
+        }
+    }
+
+    /**
+     * Restores the newest snapshot into an empty working directory.
+     *
+     * @param workingDirectory KB working directory
+     * @param downloads agent directory for (partial) downloads
+     * @param listener listener for progress messages
+     * @return true if a snapshot was restored
+     */
+    boolean restore(FilePath workingDirectory, FilePath downloads, TaskListener listener) throws IOException, InterruptedException {
+        downloads.mkdirs();
+        String restored = downloads.act(new Download(directory));
+        if (restored == null) {
+            return false;
+        }
+
+        FilePath archive = new FilePath(downloads.getChannel(), restored);
+        listener.getLogger().println("Restoring KB snapshot " + archive.getName() + " to " + workingDirectory);
+        try {
+            workingDirectory.mkdirs();
+            archive.unzip(workingDirectory);
+        } finally {
+            archive.delete();
+        }
+        return true;
+    }
+
+    private static List<File> list(File directory) {
+        List<File> snapshots = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                if (NAME_PATTERN.matcher(f.getName()).matches()) {
+                    snapshots.add(f);
+                }
+            }
+        }
+        snapshots.sort(Comparator.comparingLong(GXSKbSnapshots::getRevision).reversed());
+        return snapshots;
+    }
+
+    private static long getRevision(File snapshot) {
+        Matcher matcher = NAME_PATTERN.matcher(snapshot.getName());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    private static boolean isDue(File directory, long revision) {
+        List<File> snapshots = list(directory);
+        if (snapshots.isEmpty()) {
+            return true;
+        }
+
+        File newest = snapshots.get(0);
+        return getRevision(newest) < revision
+                && System.currentTimeMillis() - newest.lastModified() >= INTERVAL_MILLIS;
+    }
+
+    private static final class IsDue extends MasterToSlaveFileCallable<Boolean> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String directory;
+        private final long revision;
+
+        IsDue(String directory, long revision) {
+            this.directory = directory;
+            this.revision = revision;
+        }
+
+        @Override
+        public Boolean invoke(File workingDirectory, VirtualChannel channel) {
+            return isDue(new File(directory), revision);
+        }
+    }
+
+    private static final class Save extends MasterToSlaveFileCallable<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String directory;
+        private final long revision;
+
+        Save(String directory, long revision) {
+            this.directory = directory;
+            this.revision = revision;
+        }
+
+        @Override
+        public String invoke(File workingDirectory, VirtualChannel channel) throws IOException, InterruptedException {
+            File dir = new File(directory);
+            if (!isDue(dir, revision)) {
+                return null;
+            }
+
+            Files.createDirectories(dir.toPath());
+            File target = new File(dir, "r" + revision + ".zip");
+            File part = new File(dir, target.getName() + "." + Long.toHexString(System.nanoTime()) + ".part");
+            try {
+                try (OutputStream out = Files.newOutputStream(part.toPath())) {
+                    new FilePath(workingDirectory).zip(out, "**/*");
+                }
+                Files.move(part.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(part.toPath());
+            }
+
+            List<File> all = list(dir);
+            for (int i = KEEP; i < all.size(); i++) {
+                Files.deleteIfExists(all.get(i).toPath());
+            }
+            return target.getPath();
+        }
+    }
+
+    /**
+     * Copies the newest snapshot to the local directory it's invoked on,
+     * continuing a previous partial copy if there is one, and returns the
+     * path of the copy (which belongs to the caller).
+     */
+    private static final class Download extends MasterToSlaveFileCallable<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Locks of the download directories of the agent this runs on.
+         */
+        private static final Map<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+        private final String directory;
+
+        Download(String directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public String invoke(File downloads, VirtualChannel channel) throws IOException, InterruptedException {
+            List<File> snapshots = list(new File(directory));
+            if (snapshots.isEmpty()) {
+                return null;
+            }
+
+            ReentrantLock lock = LOCKS.computeIfAbsent(downloads.getAbsolutePath(), k -> new ReentrantLock());
+            lock.lockInterruptibly();
+            try {
+                return download(snapshots.get(0), downloads);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static String download(File source, File downloads) throws IOException, InterruptedException {
+            File part = new File(downloads, source.getName() + ".part");
+            File[] stale = downloads.listFiles((dir, name) -> name.endsWith(".part") && !name.equals(part.getName()));
+            if (stale != null) {
+                for (File f : stale) {
+                    Files.deleteIfExists(f.toPath());
+                }
+            }
+
+            long offset = part.length();
+            if (offset > source.length()) {
+                Files.delete(part.toPath());
+                offset = 0;
+            }
+
+            try (InputStream in = new FileInputStream(source);
+                    OutputStream out = Files.newOutputStream(part.toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                IOUtils.skipFully(in, offset);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    out.write(buffer, 0, n);
+                }
+            }
+            // a name of its own, so that restores don't unzip or delete each other's copy
+            String baseName = source.getName().substring(0, source.getName().length() - ".zip".length());
+            File target = File.createTempFile(baseName + "-", ".zip", downloads);
+            Files.move(part.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return target.getPath();
+        }
+    }
+}
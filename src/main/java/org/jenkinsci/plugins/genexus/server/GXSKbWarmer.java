@@ -0,0 +1,224 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Proc;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.Computer;
+import hudson.model.Job;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.util.ArgumentListBuilder;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import jenkins.model.Jenkins;
+
+/**
+ * Updates KB working copies on idle agents when polling found a newer
+ * revision, so that the next build finds them (almost) up to date.
+ * <p>
+ * Only copies tracked by {@link GXSKbCopies} and carrying a
+ * {@link GXSWorkspaceMarker} are considered, and only on agents with no
+ * build running. The update is killed as soon as the agent gets a build,
+ * and a checkout of the same copy waits for it to be gone. A completed
+ * update writes the marker, so that the build can skip its own update if
+ * nothing else was committed meanwhile.
+ * <p>
+ * Disabled unless the {@code enabled} system property is set.
+ *
+ * @author jlr
+ */
+final class GXSKbWarmer {
+
+    static final boolean ENABLED = Boolean.getBoolean(GXSKbWarmer.class.getName() + ".enabled");
+
+    /**
+     * How often a running update checks whether the agent got a build.
+     */
+    private static final long CHECK_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private static final Map<String, WarmUp> RUNNING = new ConcurrentHashMap<>();
+
+    private GXSKbWarmer() {
+    }
+
+    private static String id(String node, String path) {
+        return node + "|" + path;
+    }
+
+    /**
+     * @param node node name
+     * @param path KB working directory
+     * @return whether the working copy is being updated in the background
+     */
+    static boolean isWarming(String node, String path) {
+        return RUNNING.containsKey(id(node, path));
+    }
+
+    /**
+     * Stops a background update of a working copy, if there is one, and
+     * waits for it to end.
+     *
+     * @param node node where the working copy is
+     * @param workingDirectory KB working directory
+     * @param listener listener for progress messages
+     */
+    static void yield(Node node, FilePath workingDirectory, TaskListener listener) throws InterruptedException {
+        WarmUp warmUp = RUNNING.get(id(node.getNodeName(), workingDirectory.getRemote()));
+        if (warmUp != null) {
+            listener.getLogger().println("Stopping background update of " + workingDirectory);
+            warmUp.cancel();
+        }
+    }
+
+    private static void warmUp(GXSKbCopies.Entry entry, TaskListener listener) throws IOException, InterruptedException {
+        Node node = entry.node.isEmpty() ? Jenkins.get() : Jenkins.get().getNode(entry.node);
+        Computer computer = node != null ? node.toComputer() : null;
+        if (computer == null || computer.isOffline() || !computer.isIdle() || node.getChannel() == null
+                || GXSKbCopies.get().isBusy(entry)) {
+            return;
+        }
+
+        Job<?, ?> job = Jenkins.get().getItemByFullName(entry.job, Job.class);
+        if (job == null) {
+            return;
+        }
+
+        FilePath workingDirectory = new FilePath(node.getChannel(), entry.path);
+        GXSWorkspaceMarker marker = GXSWorkspaceMarker.read(workingDirectory);
+        if (marker == null || marker.info == null) {
+            return;
+        }
+
+        String key = GeneXusServerSCM.createKey(marker.info.serverUrl, marker.info.kbName, marker.info.kbVersion);
+        for (GeneXusServerSCM scm : GeneXusServerSCM.getGeneXusServerSCMs(job)) {
+            if (scm.getKey().equals(key)) {
+                GXSInfo headInfo = GXSPollingCoordinator.get().getCachedHeadInfo(key, scm.getCredentialsId());
+                if (headInfo == null || headInfo.revision <= marker.info.revision) {
+                    return;
+                }
+
+                WarmUp warmUp = new WarmUp();
+                if (RUNNING.putIfAbsent(id(entry.node, entry.path), warmUp) != null) {
+                    return;
+                }
+                try {
+                    // a build may have taken the copy while we were looking
+                    if (!GXSKbCopies.get().isBusy(entry)) {
+                        warmUp.run(scm, job, node, computer, workingDirectory, marker, headInfo, listener);
+                    }
+                } finally {
+                    RUNNING.remove(id(entry.node, entry.path));
+                    warmUp.done.countDown();
+                }
+                return;
+            }
+        }
+    }
+
+    private static final class WarmUp {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean cancelled;
+
+        void cancel() throws InterruptedException {
+            cancelled = true;
+            done.await();
+        }
+
+        void run(GeneXusServerSCM scm, Job<?, ?> job, Node node, Computer computer, FilePath workingDirectory,
+                GXSWorkspaceMarker marker, GXSInfo headInfo, TaskListener listener) throws IOException, InterruptedException {
+            listener.getLogger().println("Updating " + workingDirectory + " on " + node.getDisplayName()
+                    + " from revision #" + marker.info.revision + " to #" + headInfo.revision);
+
+            EnvVars environment = computer.getEnvironment();
+            ArgumentListBuilder args = scm.createUpdateCommand(job, workingDirectory, environment, listener);
+
+            // the KB won't be at a known revision until the update completes
+            GXSWorkspaceMarker.delete(workingDirectory);
+            Proc proc = node.createLauncher(listener).launch().cmds(args).envs(environment)
+                    .stdout(listener).pwd(workingDirectory).start();
+            int exitCode;
+            try {
+                while (proc.isAlive()) {
+                    if (cancelled || !computer.isIdle()) {
+                        listener.getLogger().println("Agent is needed by a build; stopping update of " + workingDirectory);
+                        return;
+                    }
+                    Thread.sleep(CHECK_MILLIS);
+                }
+                exitCode = proc.join();
+            } finally {
+                // also when interrupted, so that no update is left running behind a build
+                if (proc.isAlive()) {
+                    proc.kill();
+                }
+            }
+
+            if (exitCode == 0) {
+                GXSWorkspaceMarker.write(workingDirectory, headInfo, marker.localKbVersion);
+                GXSKbCopies.get().atRevision(node, workingDirectory, headInfo.revision);
+            } else {
+                listener.error("Update of " + workingDirectory + " failed");
+            }
+        }
+    }
+
+    /**
+     * Periodically looks for working copies to update.
+     */
+    @Extension
+    public static final class Work extends AsyncPeriodicWork {
+
+        public Work() {
+            super("GXserver KB warm-up");
+        }
+
+        @Override
+        public long getRecurrencePeriod() {
+            return TimeUnit.MINUTES.toMillis(5);
+        }
+
+        @Override
+        protected void execute(TaskListener listener) throws IOException, InterruptedException {
+            if (!ENABLED) {
+                return;
+            }
+
+            for (GXSKbCopies.Entry entry : GXSKbCopies.get().getEntries()) {
+                try {
+                    warmUp(entry, listener);
+                } catch (IOException ex) {
+                    listener.error("Could not update " + entry.path + ": " + ex.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.genexus.gxserver.client.clients.RevisionsQuery;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revisions of a time range, fetched by splitting the range into
+ * sub-ranges that are queried concurrently.
+ * <p>
+ * Sub-ranges are whole seconds apart (GXserver dates have no fractions) and
+ * are queried newest first, each by a {@link GXSActionPrefetcher} holding
+ * one of the server's {@link GXSCallExecutor} call slots, so no more than
+ * {@code parallelism} of them, nor more than the server allows, run at the
+ * same time. The sub-ranges after the one being iterated only start when a
+ * slot is free, and each keeps at most {@link #RANGE_PREFETCH} revisions in
+ * memory. Revisions come out newest first, as a single
+ * {@link RevisionsQuery} would return them.
+ *
+ * @author jlr
+ */
+final class GXSParallelRevisionsQuery implements Iterable<GXSHistoryRecord>, AutoCloseable {
+
+    /**
+     * Number of sub-ranges per worker, so that a busy sub-range does not
+     * hold back the others for long.
+     */
+    private static final int RANGES_PER_WORKER = 4;
+
+    /**
+     * Shortest sub-range worth a separate query.
+     */
+    private static final long MIN_RANGE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * Revisions (with their actions) fetched ahead for each sub-range.
+     */
+    static final int RANGE_PREFETCH = 50;
+
+    private final GXSConnection gxsConnection;
+    private final int parallelism;
+    private final List<Date[]> ranges;
+    private final GXSFetchStats stats;
+
+    /**
+     * Sub-ranges being fetched, closed when done or when the query is
+     * closed.
+     *
+     * @GuardedBy this
+     */
+    private final Set<RangeFetch> fetching = new HashSet<>();
+
+    GXSParallelRevisionsQuery(GXSConnection gxsConnection, Date from, Date to, int parallelism, GXSFetchStats stats) {
+        this.gxsConnection = gxsConnection;
+        this.stats = stats;
+        this.parallelism = parallelism;
+        this.ranges = split(from, to, parallelism * RANGES_PER_WORKER);
+    }
+
+    /**
+     * @param from start of the range
+     * @param to end of the range
+     * @return whether the range is long enough to be worth splitting
+     */
+    static boolean isWorthSplitting(Date from, Date to) {
+        return to.getTime() - from.getTime() >= 2 * MIN_RANGE_MILLIS;
+    }
+
+    /**
+     * Splits a range into consecutive, non overlapping sub-ranges, newest
+     * first.
+     */
+    static List<Date[]> split(Date from, Date to, int count) {
+        long start = from.getTime();
+        long end = to.getTime();
+        long length = Math.max(MIN_RANGE_MILLIS, (end - start) / count);
+        length = length - length % 1000;
+
+        List<Date[]> result = new ArrayList<>();
+        for (long rangeStart = start; rangeStart <= end; rangeStart += length) {
+            long rangeEnd = Math.min(end, rangeStart + length - 1000);
+            result.add(new Date[]{new Date(rangeStart), new Date(rangeEnd)});
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    @Override
+    public Iterator<GXSHistoryRecord> iterator() {
+        return new MergingIterator(new RangeIterator());
+    }
+
+    @Override
+    public void close() {
+        List<RangeFetch> open;
+        synchronized (this) {
+            open = new ArrayList<>(fetching);
+        }
+        for (RangeFetch range : open) {
+            range.close(false);
+        }
+    }
+
+    private RangeFetch start(Date[] range, GXSCallExecutor.Permit permit) throws IOException {
+        GXSClientPool.Lease lease;
+        try {
+            lease = GXSClientPool.get().acquire(gxsConnection);
+        } catch (IOException | RuntimeException ex) {
+            permit.close();
+            throw ex;
+        }
+
+        RevisionsQuery query = new RevisionsQuery(lease.getClient(), gxsConnection.getKbName(), gxsConnection.getKbVersion(), range[0], range[1]);
+        stats.queryIssued();
+        RangeFetch fetch = new RangeFetch(lease, new GXSActionPrefetcher(query, RANGE_PREFETCH, stats, lease, permit));
+        synchronized (this) {
+            fetching.add(fetch);
+        }
+        return fetch;
+    }
+
+    /**
+     * A sub-range being fetched in the background with its own client.
+     */
+    private final class RangeFetch {
+
+        private final GXSClientPool.Lease lease;
+        private final GXSActionPrefetcher revisions;
+        private final Iterator<GXSHistoryRecord> iterator;
+
+        RangeFetch(GXSClientPool.Lease lease, GXSActionPrefetcher revisions) {
+            this.lease = lease;
+            this.revisions = revisions;
+            this.iterator = revisions.iterator();
+        }
+
+        /**
+         * Stops the fetch, gives its call slot back and returns the client
+         * to the pool (unless it failed).
+         */
+        void close(boolean succeeded) {
+            synchronized (GXSParallelRevisionsQuery.this) {
+                if (!fetching.remove(this)) {
+                    return;
+                }
+            }
+
+            try {
+                revisions.close();
+            } finally {
+                if (!succeeded) {
+                    lease.invalidate();
+                }
+                lease.close();
+            }
+        }
+    }
+
+    /**
+     * Yields the revisions of each sub-range, newest first, starting the
+     * following sub-ranges while there are free call slots.
+     */
+    private final class RangeIterator implements Iterator<Iterator<GXSHistoryRecord>> {
+
+        private final Deque<RangeFetch> started = new ArrayDeque<>();
+        private int nextRange;
+        private RangeFetch current;
+
+        @Override
+        public boolean hasNext() {
+            if (!started.isEmpty() || nextRange < ranges.size()) {
+                return true;
+            }
+
+            if (current != null) {
+                current.close(true);
+                current = null;
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<GXSHistoryRecord> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (current != null) {
+                current.close(true);
+                current = null;
+            }
+
+            try {
+                if (started.isEmpty()) {
+                    // nothing is held here, so waiting for a slot can't
+                    // deadlock with sub-ranges waiting to be consumed
+                    started.add(start(ranges.get(nextRange++), GXSCallExecutor.get().acquire(gxsConnection.getServerURL())));
+                }
+                startAhead();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while fetching GeneXus Server history", ex);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Error fetching GeneXus Server history", ex);
+            }
+
+            RangeFetch range = started.poll();
+            current = range;
+            return new Iterator<GXSHistoryRecord>() {
+                @Override
+                public boolean hasNext() {
+                    try {
+                        return range.iterator.hasNext();
+                    } catch (RuntimeException ex) {
+                        range.close(false);
+                        throw ex;
+                    }
+                }
+
+                @Override
+                public GXSHistoryRecord next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return range.iterator.next();
+                }
+            };
+        }
+
+        private void startAhead() throws IOException {
+            while (started.size() < parallelism && nextRange < ranges.size()) {
+                GXSCallExecutor.Permit permit = GXSCallExecutor.get().tryAcquire(gxsConnection.getServerURL());
+                if (permit == null) {
+                    return;
+                }
+                started.add(start(ranges.get(nextRange++), permit));
+            }
+        }
+    }
+
+    /**
+     * Concatenates the revisions of consecutive sub-ranges (each newest
+     * first, and older than the previous one), skipping any revision that
+     * is not older than the last one returned.
+     */
+    static final class MergingIterator implements Iterator<GXSHistoryRecord> {
+
+        private final Iterator<? extends Iterator<GXSHistoryRecord>> ranges;
+        private Iterator<GXSHistoryRecord> current = Collections.emptyIterator();
+        private GXSHistoryRecord nextRecord;
+        private Integer lastId;
+
+        MergingIterator(Iterator<? extends Iterator<GXSHistoryRecord>> ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextRecord == null) {
+                if (current.hasNext()) {
+                    GXSHistoryRecord record = current.next();
+                    // ranges don't overlap, but be safe against duplicates
+                    if (lastId == null || record.id < lastId) {
+                        nextRecord = record;
+                        lastId = record.id;
+                    }
+                } else if (ranges.hasNext()) {
+                    current = ranges.next();
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public GXSHistoryRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            GXSHistoryRecord record = nextRecord;
+            nextRecord = null;
+            return record;
+        }
+    }
+}
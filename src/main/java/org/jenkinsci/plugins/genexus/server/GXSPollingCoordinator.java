@@ -0,0 +1,240 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.PeriodicWork;
+import hudson.model.TaskListener;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Controller-wide coordinator for GXserver head revision queries.
+ * <p>
+ * Every job polling the same server/KB/version (as given by
+ * {@link GeneXusServerSCM#getKey()}) with the same credentials shares a
+ * single head query per refresh interval, so the load on GXserver grows with
+ * the number of distinct KBs instead of the number of jobs. Jobs with other
+ * credentials don't get results they might not be allowed to see.
+ * <p>
+ * Each query only asks for revisions since the previous head (or since
+ * {@link #LOOKBACK_DAYS} ago the first time), and entries no job asked for
+ * within {@link #ENTRY_EXPIRATION_SECONDS} are discarded.
+ *
+ * @author jlr
+ */
+public final class GXSPollingCoordinator {
+
+    private static final Logger LOGGER = Logger.getLogger(GXSPollingCoordinator.class.getName());
+
+    /**
+     * Minimum time (in seconds) between two head queries for the same key.
+     * When {@link GXSAdaptivePollingInterval} is enabled, the interval is
+     * computed per key instead.
+     */
+    static final long REFRESH_INTERVAL_SECONDS = Long.getLong(GXSPollingCoordinator.class.getName() + ".refreshInterval", 60);
+
+    /**
+     * How far back (in days) the first head query for a key looks, before
+     * asking for the whole history.
+     */
+    static final int LOOKBACK_DAYS = Integer.getInteger(GXSPollingCoordinator.class.getName() + ".lookbackDays", 30);
+
+    /**
+     * Time (in seconds) an unused entry is kept.
+     */
+    static final long ENTRY_EXPIRATION_SECONDS = Long.getLong(GXSPollingCoordinator.class.getName() + ".entryExpiration", 3600);
+
+    private static final GXSPollingCoordinator INSTANCE = new GXSPollingCoordinator();
+
+    private final ConcurrentMap<String, HeadEntry> entries = new ConcurrentHashMap<>();
+
+    private GXSPollingCoordinator() {
+    }
+
+    public static GXSPollingCoordinator get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the head revision for a server/KB/version, querying GXserver only
+     * if no other job did so within the refresh interval.
+     *
+     * @param key value of {@link GeneXusServerSCM#getKey()}
+     * @param credentialsId id of the credentials used by the job
+     * @param listener listener of the job asking for the head revision
+     * @param gxsConnection connection used if a new query is needed
+     * @return the most recent known revision
+     * @throws IOException if the query fails
+     * @throws InterruptedException if interrupted while waiting for or
+     * running the query
+     */
+    public GXSInfo getHeadInfo(String key, String credentialsId, TaskListener listener, GXSConnection gxsConnection) throws IOException, InterruptedException {
+        HeadEntry entry = entries.computeIfAbsent(entryKey(key, credentialsId), k -> new HeadEntry(key));
+        return entry.get(listener, gxsConnection);
+    }
+
+    /**
+     * Gets the last head revision obtained for a key, without querying
+     * GXserver.
+     *
+     * @param key value of {@link GeneXusServerSCM#getKey()}
+     * @param credentialsId id of the credentials used by the job
+     * @return null if the key was never queried with those credentials
+     */
+    public GXSInfo getCachedHeadInfo(String key, String credentialsId) {
+        HeadEntry entry = entries.get(entryKey(key, credentialsId));
+        return entry != null ? entry.getCached() : null;
+    }
+
+    /**
+     * Discards the cached head revision for a key (whatever the
+     * credentials), so that the next call to {@link #getHeadInfo} queries
+     * GXserver.
+     *
+     * @param key value of {@link GeneXusServerSCM#getKey()}
+     */
+    public void invalidate(String key) {
+        for (HeadEntry entry : entries.values()) {
+            if (entry.key.equals(key)) {
+                entry.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Discards the entries no job asked for in a while.
+     */
+    void evictUnused() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.isUnused(now));
+    }
+
+    private static String entryKey(String key, String credentialsId) {
+        return key + "\n" + Util.fixNull(credentialsId);
+    }
+
+    /**
+     * Head revision of a single key. Callers arriving while a query is in
+     * progress block on the entry and reuse its result.
+     */
+    private static final class HeadEntry {
+
+        private final String key;
+        private final GXSAdaptivePollingInterval adaptiveInterval = new GXSAdaptivePollingInterval();
+        private GXSInfo info;
+        private long fetchedAt;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        HeadEntry(String key) {
+            this.key = key;
+        }
+
+        private long refreshIntervalMillis(long now) {
+            if (GXSAdaptivePollingInterval.ENABLED) {
+                return adaptiveInterval.getIntervalMillis(now);
+            }
+
+            return TimeUnit.SECONDS.toMillis(REFRESH_INTERVAL_SECONDS);
+        }
+
+        synchronized GXSInfo get(TaskListener listener, GXSConnection gxsConnection) throws IOException, InterruptedException {
+            long now = System.currentTimeMillis();
+            lastUsed = now;
+            if (info != null && now - fetchedAt < refreshIntervalMillis(now)) {
+                listener.getLogger().println("Using GXserver head revision obtained " + TimeUnit.MILLISECONDS.toSeconds(now - fetchedAt) + "s ago");
+                return info;
+            }
+
+            info = GXSCircuitBreaker.forServer(gxsConnection.getServerURL())
+                    .call(() -> queryHead(listener, gxsConnection, now));
+            adaptiveInterval.observe(info);
+            fetchedAt = now;
+            LOGGER.log(Level.FINE, "Refreshed GXserver head: {0}", info);
+            if (GXSAdaptivePollingInterval.ENABLED) {
+                listener.getLogger().println("Next GXserver head query for this KB version in "
+                        + TimeUnit.MILLISECONDS.toSeconds(refreshIntervalMillis(now)) + "s or later");
+            }
+            return info;
+        }
+
+        /**
+         * Asks for the revisions since the previous head, or since
+         * {@link #LOOKBACK_DAYS} ago, and only for the whole history if
+         * there are none.
+         */
+        private GXSInfo queryHead(TaskListener listener, GXSConnection gxsConnection, long now) throws IOException, InterruptedException {
+            Date to = new Date(now);
+            Date from = info != null && info.revision > 0
+                    ? info.revisionDate
+                    : new Date(now - TimeUnit.DAYS.toMillis(LOOKBACK_DAYS));
+
+            GXSInfo head = new GetLastRevisionTask(listener, gxsConnection, from, to).execute();
+            if (head != null && head.revision > 0) {
+                return head;
+            }
+            if (info != null && info.revision > 0) {
+                // nothing new since the previous head
+                return info;
+            }
+
+            return new GetLastRevisionTask(listener, gxsConnection, null, to).execute();
+        }
+
+        boolean isUnused(long now) {
+            return now - lastUsed > TimeUnit.SECONDS.toMillis(ENTRY_EXPIRATION_SECONDS);
+        }
+
+        synchronized GXSInfo getCached() {
+            return info;
+        }
+
+        synchronized void invalidate() {
+            fetchedAt = 0;
+        }
+    }
+
+    /**
+     * Periodically discards unused entries.
+     */
+    @Extension
+    public static final class Eviction extends PeriodicWork {
+
+        @Override
+        public long getRecurrencePeriod() {
+            return MIN * 10;
+        }
+
+        @Override
+        protected void doRun() {
+            GXSPollingCoordinator.get().evictUnused();
+        }
+    }
+}
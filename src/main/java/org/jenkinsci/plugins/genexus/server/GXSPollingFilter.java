@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.genexus.gxserver.client.info.ActionInfo;
+import com.genexus.gxserver.client.info.RevisionInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Decides which GXserver revisions are relevant for polling, based on
+ * include/exclude patterns for the author of the revision and for the type
+ * and name of the objects it touches.
+ * <p>
+ * Patterns are separated by commas or new lines and may use the {@code *}
+ * and {@code ?} wildcards; matching is case insensitive. An empty include
+ * list matches everything. A revision is relevant if its author is not
+ * filtered out and at least one of its actions touches an object whose type
+ * and name are both included and not excluded.
+ *
+ * @author jlr
+ */
+final class GXSPollingFilter {
+
+    private final List<String> includedObjectTypes;
+    private final List<String> excludedObjectTypes;
+    private final List<String> includedObjectNames;
+    private final List<String> excludedObjectNames;
+    private final List<String> includedAuthors;
+    private final List<String> excludedAuthors;
+
+    GXSPollingFilter(String includedObjectTypes, String excludedObjectTypes,
+            String includedObjectNames, String excludedObjectNames,
+            String includedAuthors, String excludedAuthors) {
+        this.includedObjectTypes = parsePatterns(includedObjectTypes);
+        this.excludedObjectTypes = parsePatterns(excludedObjectTypes);
+        this.includedObjectNames = parsePatterns(includedObjectNames);
+        this.excludedObjectNames = parsePatterns(excludedObjectNames);
+        this.includedAuthors = parsePatterns(includedAuthors);
+        this.excludedAuthors = parsePatterns(excludedAuthors);
+    }
+
+    private static List<String> parsePatterns(String patterns) {
+        if (StringUtils.isBlank(patterns)) {
+            return Collections.emptyList();
+        }
+
+        List<String> result = new ArrayList<>();
+        for (String pattern : patterns.split("[,\\r\\n]+")) {
+            if (StringUtils.isNotBlank(pattern)) {
+                result.add(pattern.trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return true if no pattern was given, in which case every revision is
+     * relevant
+     */
+    boolean isEmpty() {
+        return includedObjectTypes.isEmpty() && excludedObjectTypes.isEmpty()
+                && includedObjectNames.isEmpty() && excludedObjectNames.isEmpty()
+                && includedAuthors.isEmpty() && excludedAuthors.isEmpty();
+    }
+
+    boolean isRelevant(RevisionInfo revision) {
+        if (!isAuthorIncluded(revision.author)) {
+            return false;
+        }
+
+        boolean hasActions = false;
+        for (ActionInfo action : revision.getActions()) {
+            hasActions = true;
+            if (isObjectIncluded(action.objectType, action.objectName)) {
+                return true;
+            }
+        }
+
+        // a revision without actions can't be told apart, so it isn't filtered
+        return !hasActions;
+    }
+
+    boolean isAuthorIncluded(String author) {
+        return isIncluded(author, includedAuthors, excludedAuthors);
+    }
+
+    boolean isObjectIncluded(String objectType, String objectName) {
+        return isIncluded(objectType, includedObjectTypes, excludedObjectTypes)
+                && isIncluded(objectName, includedObjectNames, excludedObjectNames);
+    }
+
+    private static boolean isIncluded(String value, List<String> includes, List<String> excludes) {
+        if (!includes.isEmpty() && !matchesAny(value, includes)) {
+            return false;
+        }
+
+        return !matchesAny(value, excludes);
+    }
+
+    private static boolean matchesAny(String value, List<String> patterns) {
+        String safeValue = StringUtils.defaultString(value);
+        for (String pattern : patterns) {
+            if (FilenameUtils.wildcardMatch(safeValue, pattern, IOCase.INSENSITIVE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Item;
+import hudson.model.Job;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import jenkins.model.TransientActionFactory;
+
+/**
+ * Shows on the job page the state of GXserver polling for the servers used
+ * by the job (for example, when polling is suspended because a server is
+ * down, or when calls to it are queueing up).
+ *
+ * @author jlr
+ */
+public class GXSPollingStatusAction implements Action {
+
+    private final Job<?, ?> job;
+    private final Set<String> serverURLs;
+
+    GXSPollingStatusAction(Job<?, ?> job, Set<String> serverURLs) {
+        this.job = job;
+        this.serverURLs = serverURLs;
+    }
+
+    /**
+     * Errors may include server details, so they are only shown to users
+     * who can configure the job.
+     *
+     * @return whether the last error of each server may be displayed
+     */
+    public boolean isErrorVisible() {
+        return job.hasPermission(Item.CONFIGURE);
+    }
+
+    /**
+     * Gets the circuit breakers that are currently not closed, for display.
+     *
+     * @return list of breakers, empty if polling is working normally
+     */
+    public List<GXSCircuitBreaker> getTrippedBreakers() {
+        List<GXSCircuitBreaker> result = new ArrayList<>();
+        for (String serverURL : serverURLs) {
+            GXSCircuitBreaker breaker = GXSCircuitBreaker.getIfExists(serverURL);
+            if (breaker != null && !breaker.isClosed()) {
+                result.add(breaker);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the servers used by the job whose call slots are all busy, for
+     * display.
+     *
+     * @return list of loads, empty if no server is saturated
+     */
+    public List<ServerLoad> getSaturatedServers() {
+        GXSCallExecutor executor = GXSCallExecutor.get();
+        List<ServerLoad> result = new ArrayList<>();
+        for (String serverURL : serverURLs) {
+            ServerLoad load = new ServerLoad(serverURL, executor.getInFlight(serverURL), executor.getWaiting(serverURL));
+            if (load.getWaiting() > 0 || load.getInFlight() >= GXSCallExecutor.MAX_CALLS_PER_SERVER) {
+                result.add(load);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return number of GXserver calls (for any server) waiting for a thread
+     */
+    public int getQueueDepth() {
+        return GXSCallExecutor.get().getQueueDepth();
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return null;
+    }
+
+    @Override
+    public String getUrlName() {
+        return null;
+    }
+
+    public static final class ServerLoad {
+
+        private final String serverURL;
+        private final int inFlight;
+        private final int waiting;
+
+        ServerLoad(String serverURL, int inFlight, int waiting) {
+            this.serverURL = serverURL;
+            this.inFlight = inFlight;
+            this.waiting = waiting;
+        }
+
+        public String getServerURL() {
+            return serverURL;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public int getWaiting() {
+            return waiting;
+        }
+    }
+
+    @Extension
+    @SuppressWarnings("rawtypes")
+    public static class Factory extends TransientActionFactory<Job> {
+
+        @Override
+        public Class<Job> type() {
+            return Job.class;
+        }
+
+        @Nonnull
+        @Override
+        public Collection<? extends Action> createFor(@Nonnull Job target) {
+            @SuppressWarnings("unchecked")
+            List<GeneXusServerSCM> scms = GeneXusServerSCM.getGeneXusServerSCMs(target);
+            if (scms.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            Set<String> serverURLs = new LinkedHashSet<>();
+            for (GeneXusServerSCM scm : scms) {
+                serverURLs.add(scm.getServerConnectionURL());
+            }
+
+            return Collections.singleton(new GXSPollingStatusAction(target, serverURLs));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.FilePath;
+import hudson.Util;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.io.filefilter.WildcardFileFilter;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * A copy of a local KB kept in an agent, per server/KB/version, used to
+ * seed new workspaces so that they only need an Update instead of a full
+ * Checkout.
+ * <p>
+ * The copy lives under {@code gxserver-kb-cache} in the agent's root
+ * directory and is refreshed from a workspace after a successful
+ * checkout/update once it is older than {@link #MAX_AGE_MILLIS}. Only KBs
+ * whose database files are in the KB folder and whose database is named by
+ * the plugin are cached. The workspace's database is detached while it is
+ * copied, and every seeded copy gets a database of its own (see
+ * {@link GXSKbDatabases}).
+ * <p>
+ * Disabled unless the {@code enabled} system property is set.
+ *
+ * @author jlr
+ */
+final class GXSReferenceKbCache {
+
+    static final boolean ENABLED = Boolean.getBoolean(GXSReferenceKbCache.class.getName() + ".enabled");
+
+    /**
+     * Age after which the copy is replaced by a newer one.
+     */
+    static final long MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(
+            Long.getLong(GXSReferenceKbCache.class.getName() + ".maxAge", 24));
+
+    static final String DIR_NAME = "gxserver-kb-cache";
+
+    private static final String TIMESTAMP_FILE = "GXServer_cached.txt";
+
+    /**
+     * Copies are read and written by checkouts running on the controller,
+     * so locking here is enough to keep them from stepping on each other.
+     */
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private final FilePath directory;
+    private final Object lock;
+
+    private GXSReferenceKbCache(FilePath directory, String id) {
+        this.directory = directory;
+        this.lock = LOCKS.computeIfAbsent(id, k -> new Object());
+    }
+
+    /**
+     * @param node node where the workspace is
+     * @param key SCM key (server/KB/version)
+     * @param localKbVersion working version of the local KB (may be blank)
+     * @return the node's cache for the KB, or null if there can't be one
+     */
+    static GXSReferenceKbCache forNode(Node node, String key, String localKbVersion) {
+        if (!ENABLED || node == null) {
+            return null;
+        }
+
+        FilePath root = node.getRootPath();
+        if (root == null) {
+            return null;
+        }
+
+        String name = Util.getDigestOf(key + "\n" + StringUtils.defaultString(localKbVersion));
+        return new GXSReferenceKbCache(root.child(DIR_NAME).child(name), node.getNodeName() + "/" + name);
+    }
+
+    /**
+     * Copies the cached KB to an empty working directory.
+     *
+     * @param workingDirectory KB working directory
+     * @param listener listener for progress messages
+     * @return true if the working directory was seeded
+     */
+    boolean seed(FilePath workingDirectory, TaskListener listener) throws IOException, InterruptedException {
+        synchronized (lock) {
+            if (!containsKb(directory)) {
+                return false;
+            }
+
+            listener.getLogger().println("Copying reference KB from " + directory + " to " + workingDirectory);
+            workingDirectory.mkdirs();
+            directory.copyRecursiveTo("**/*", TIMESTAMP_FILE, workingDirectory);
+            return true;
+        }
+    }
+
+    /**
+     * @return whether there is no cached KB or it is too old
+     */
+    boolean isStale() throws IOException, InterruptedException {
+        synchronized (lock) {
+            return !containsKb(directory) || System.currentTimeMillis() - getTimestamp() >= MAX_AGE_MILLIS;
+        }
+    }
+
+    /**
+     * Replaces the cached KB with a copy of the working directory, if there
+     * is none or it is too old. The working directory's database must be
+     * detached.
+     *
+     * @param workingDirectory KB working directory, just updated
+     * @param listener listener for progress messages
+     */
+    void refresh(FilePath workingDirectory, TaskListener listener) throws IOException, InterruptedException {
+        synchronized (lock) {
+            if (!isStale()) {
+                return;
+            }
+
+            listener.getLogger().println("Updating reference KB " + directory);
+            FilePath parent = directory.getParent();
+            FilePath temp = parent.child(directory.getName() + ".tmp-" + UUID.randomUUID());
+            try {
+                temp.mkdirs();
+                workingDirectory.copyRecursiveTo(temp);
+                temp.child(TIMESTAMP_FILE).write(Long.toString(System.currentTimeMillis()), "UTF-8");
+                directory.deleteRecursive();
+                temp.renameTo(directory);
+            } finally {
+                temp.deleteRecursive();
+            }
+        }
+    }
+
+    /**
+     * Removes the cached KB (e.g. because updating a copy of it failed).
+     */
+    void discard() throws IOException, InterruptedException {
+        synchronized (lock) {
+            directory.deleteRecursive();
+        }
+    }
+
+    private long getTimestamp() throws InterruptedException {
+        try {
+            return Long.parseLong(directory.child(TIMESTAMP_FILE).readToString().trim());
+        } catch (IOException | NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    static boolean containsKb(FilePath directory) throws IOException, InterruptedException {
+        return directory.exists() && !directory.list(new WildcardFileFilter("*.gxw", IOCase.INSENSITIVE)).isEmpty();
+    }
+}
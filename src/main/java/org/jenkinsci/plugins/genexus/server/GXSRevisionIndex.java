@@ -0,0 +1,198 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import hudson.util.AtomicFileWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+
+/**
+ * Job-level index from build number to the GXserver revision stored in the
+ * revision file of that build.
+ * <p>
+ * Looking up the closest build with a revision file used to mean walking
+ * {@link Run#getPreviousBuild()}, which loads every intermediate build from
+ * disk. The index is kept in {@link #INDEX_FILE_NAME} in the job folder,
+ * updated whenever a revision file is saved and when builds are deleted.
+ * Older builds are still found by walking the history.
+ *
+ * @author jlr
+ */
+final class GXSRevisionIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(GXSRevisionIndex.class.getName());
+
+    static final String INDEX_FILE_NAME = "GXServer_revisions.json";
+
+    private static final TypeReference<TreeMap<Integer, GXSInfo>> ENTRIES_TYPE = new TypeReference<TreeMap<Integer, GXSInfo>>() {
+    };
+
+    private static final Map<Job<?, ?>, GXSRevisionIndex> INDEXES = new WeakHashMap<>();
+
+    private final NavigableMap<Integer, GXSInfo> entries;
+
+    private GXSRevisionIndex(NavigableMap<Integer, GXSInfo> entries) {
+        this.entries = entries;
+    }
+
+    private static File getIndexFile(Job<?, ?> job) {
+        return new File(job.getRootDir(), INDEX_FILE_NAME);
+    }
+
+    @Nonnull
+    private static synchronized GXSRevisionIndex forJob(Job<?, ?> job) {
+        GXSRevisionIndex index = INDEXES.get(job);
+        if (index == null) {
+            index = new GXSRevisionIndex(load(getIndexFile(job)));
+            INDEXES.put(job, index);
+        }
+        return index;
+    }
+
+    private static NavigableMap<Integer, GXSInfo> load(File file) {
+        if (file.exists()) {
+            try {
+                return new ObjectMapper().readValue(file, ENTRIES_TYPE);
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Ignoring unreadable revision index " + file, ex);
+            }
+        }
+        return new TreeMap<>();
+    }
+
+    /**
+     * Finds the revision of the given build or, if it has none, of the
+     * closest previous build that has one.
+     *
+     * @param build a build
+     * @return null if the index knows of no such build
+     */
+    static GXSInfo findClosest(Run<?, ?> build) {
+        GXSRevisionIndex index = forJob(build.getParent());
+        synchronized (index) {
+            Map.Entry<Integer, GXSInfo> entry = index.entries.floorEntry(build.getNumber());
+            return entry != null ? entry.getValue() : null;
+        }
+    }
+
+    /**
+     * Records the revision saved for a build.
+     *
+     * @param build a build
+     * @param info contents of its revision file
+     */
+    static void record(Run<?, ?> build, GXSInfo info) {
+        Job<?, ?> job = build.getParent();
+        GXSRevisionIndex index = forJob(job);
+        synchronized (index) {
+            GXSInfo previous = index.entries.put(build.getNumber(), info);
+            if (!info.equals(previous)) {
+                index.save(getIndexFile(job));
+            }
+        }
+    }
+
+    /**
+     * Records a revision found by walking the build history from the last
+     * build of the job. Only done while the index is still empty: from then
+     * on every revision file saved is recorded, so there can be no revision
+     * files newer than the found one missing from the index.
+     *
+     * @param start build the walk started from
+     * @param found closest build with a revision file
+     * @param info contents of its revision file
+     */
+    static void recordFoundInHistory(Run<?, ?> start, Run<?, ?> found, GXSInfo info) {
+        Job<?, ?> job = start.getParent();
+        if (start != job.getLastBuild()) {
+            return;
+        }
+
+        GXSRevisionIndex index = forJob(job);
+        synchronized (index) {
+            if (index.entries.isEmpty()) {
+                index.entries.put(found.getNumber(), info);
+                index.save(getIndexFile(job));
+            }
+        }
+    }
+
+    /**
+     * Forgets a build, typically because it was deleted.
+     *
+     * @param build a build
+     */
+    static void remove(Run<?, ?> build) {
+        Job<?, ?> job = build.getParent();
+        if (!getIndexFile(job).exists()) {
+            return;
+        }
+
+        GXSRevisionIndex index = forJob(job);
+        synchronized (index) {
+            if (index.entries.remove(build.getNumber()) != null) {
+                index.save(getIndexFile(job));
+            }
+        }
+    }
+
+    private void save(File file) {
+        try {
+            String json = new ObjectMapper().writeValueAsString(entries);
+            AtomicFileWriter writer = new AtomicFileWriter(file.toPath(), StandardCharsets.UTF_8);
+            try {
+                writer.write(json);
+                writer.commit();
+            } finally {
+                writer.abort();
+            }
+        } catch (IOException ex) {
+            // the index is only an optimization: lookups fall back to the build history
+            LOGGER.log(Level.WARNING, "Unable to save revision index " + file, ex);
+        }
+    }
+
+    @Extension
+    public static final class Cleaner extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onDeleted(Run<?, ?> run) {
+            remove(run);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.console.LineTransformationOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Passes the output of a TeamDev Checkout/Update through, remembering the
+ * revision it reports the KB was brought to.
+ * <p>
+ * The pattern must capture the revision number in its first group, and is
+ * matched against each whole line; the last match wins. The default one only
+ * accepts summary lines that consist of nothing but "Updated to revision
+ * 123", "Checked out revision 123" or "At revision 123" (with an optional
+ * "#" and final period), so object level lines that happen to mention a
+ * revision are ignored. Other TeamDev versions can be matched by setting the
+ * {@code pattern} system property.
+ * <p>
+ * The revision found is only a hint: the caller confirms it with GXserver
+ * before using it.
+ *
+ * @author jlr
+ */
+final class GXSRevisionOutputScanner extends LineTransformationOutputStream.Delegating {
+
+    static final String DEFAULT_PATTERN = "(?i)^\\s*(?:updated to|checked out|at) revision\\s*#?\\s*(\\d+)\\.?\\s*$";
+
+    private static final Pattern PATTERN = Pattern.compile(
+            System.getProperty(GXSRevisionOutputScanner.class.getName() + ".pattern", DEFAULT_PATTERN));
+
+    private final Pattern pattern;
+    private final Charset charset;
+    private volatile Integer revision;
+
+    GXSRevisionOutputScanner(OutputStream out, Charset charset) {
+        this(out, charset, PATTERN);
+    }
+
+    GXSRevisionOutputScanner(OutputStream out, Charset charset, Pattern pattern) {
+        super(out);
+        this.pattern = pattern;
+        this.charset = charset;
+    }
+
+    @Override
+    protected void eol(byte[] b, int len) throws IOException {
+        Matcher matcher = pattern.matcher(new String(b, 0, len, charset));
+        if (matcher.find()) {
+            try {
+                revision = Integer.valueOf(matcher.group(1));
+            } catch (NumberFormatException | IndexOutOfBoundsException ex) {
+                // not a revision after all
+            }
+        }
+        out.write(b, 0, len);
+    }
+
+    /**
+     * Processes a last line that didn't end with a newline.
+     *
+     * @throws IOException if writing to the underlying stream fails
+     */
+    void finish() throws IOException {
+        forceEol();
+    }
+
+    /**
+     * @return the last revision reported, or null if none was found
+     */
+    Integer getRevision() {
+        return revision;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.model.Job;
+import hudson.model.Label;
+import hudson.model.Node;
+import hudson.model.Queue;
+import hudson.model.queue.CauseOfBlockage;
+import hudson.model.queue.QueueTaskDispatcher;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import jenkins.model.Jenkins;
+
+/**
+ * Keeps builds of jobs using {@link GeneXusServerSCM} off agents with no
+ * working copy of their KB for a while, so that they get an agent that has
+ * one.
+ * <p>
+ * Working copies are the ones tracked by {@link GXSKbCopies}. For the first
+ * half of the wait, only the agents whose copy is at the highest revision
+ * are accepted; for the second half, any agent with a copy. A build is only
+ * held back while one of the accepted agents has an idle executor. After
+ * the wait, or when no agent that can run the build has a copy, builds are
+ * scheduled normally. The wait is set in seconds with the {@code wait}
+ * system property; it is 0 (disabled) by default.
+ *
+ * @author jlr
+ */
+@Extension
+public class GXSWarmNodeDispatcher extends QueueTaskDispatcher {
+
+    static final long WAIT_MILLIS = TimeUnit.SECONDS.toMillis(
+            Long.getLong(GXSWarmNodeDispatcher.class.getName() + ".wait", 0));
+
+    /**
+     * How long the warm nodes found for an item are reused, since the queue
+     * asks about every node in a row.
+     */
+    private static final long CACHE_MILLIS = 1000;
+
+    /**
+     * @GuardedBy this
+     */
+    private WarmNodes cached;
+
+    @Override
+    public CauseOfBlockage canTake(Node node, Queue.BuildableItem item) {
+        if (WAIT_MILLIS <= 0) {
+            return null;
+        }
+
+        long waited = item.getInQueueForMillis();
+        if (waited >= WAIT_MILLIS) {
+            return null;
+        }
+
+        WarmNodes warmNodes = getWarmNodes(item);
+        Set<String> accepted = accept(warmNodes.revisions, waited >= WAIT_MILLIS / 2);
+        if (accepted.isEmpty() || accepted.contains(node.getNodeName())) {
+            return null;
+        }
+
+        // don't keep the build waiting for agents that are busy anyway
+        for (String name : accepted) {
+            if (warmNodes.idle.contains(name)) {
+                return new WaitingForWarmNode();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks the warm nodes a build may wait for.
+     *
+     * @param revisions highest revision of a working copy of the KB, by node
+     * @param anyRevision whether any node with a copy is accepted, or only
+     * the ones with the highest revision
+     * @return the accepted nodes
+     */
+    static Set<String> accept(Map<String, Long> revisions, boolean anyRevision) {
+        if (anyRevision || revisions.isEmpty()) {
+            return new HashSet<>(revisions.keySet());
+        }
+
+        long best = revisions.values().stream().mapToLong(Long::longValue).max().getAsLong();
+        Set<String> result = new HashSet<>();
+        revisions.forEach((name, revision) -> {
+            if (revision == best) {
+                result.add(name);
+            }
+        });
+        return result;
+    }
+
+    private synchronized WarmNodes getWarmNodes(Queue.BuildableItem item) {
+        long now = System.currentTimeMillis();
+        if (cached == null || cached.itemId != item.getId() || now - cached.computedAt > CACHE_MILLIS) {
+            cached = new WarmNodes(item.getId(), now);
+            Queue.Task owner = item.task.getOwnerTask();
+            if (owner instanceof Job) {
+                Set<String> keys = new HashSet<>();
+                for (GeneXusServerSCM scm : GeneXusServerSCM.getGeneXusServerSCMs((Job<?, ?>) owner)) {
+                    keys.add(scm.getKey());
+                }
+                if (!keys.isEmpty()) {
+                    findWarmNodes(keys, item.getAssignedLabel(), cached);
+                }
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Finds the online nodes that could run the build and have a working
+     * copy of the given KBs.
+     */
+    private static void findWarmNodes(Set<String> keys, Label label, WarmNodes warmNodes) {
+        List<GXSKbCopies.Entry> entries = GXSKbCopies.get().getEntries();
+        for (GXSKbCopies.Entry entry : entries) {
+            if (entry.key == null || !keys.contains(entry.key)) {
+                continue;
+            }
+
+            Node node = entry.node.isEmpty() ? Jenkins.get() : Jenkins.get().getNode(entry.node);
+            Computer computer = node != null ? node.toComputer() : null;
+            if (computer == null || computer.isOffline() || (label != null && !label.contains(node))) {
+                continue;
+            }
+
+            warmNodes.revisions.merge(entry.node, entry.revision, Math::max);
+            if (computer.countIdle() > 0) {
+                warmNodes.idle.add(entry.node);
+            }
+        }
+    }
+
+    private static final class WarmNodes {
+
+        private final long itemId;
+        private final long computedAt;
+        /**
+         * Highest revision of a working copy, by node name.
+         */
+        private final Map<String, Long> revisions = new HashMap<>();
+        private final Set<String> idle = new HashSet<>();
+
+        WarmNodes(long itemId, long computedAt) {
+            this.itemId = itemId;
+            this.computedAt = computedAt;
+        }
+    }
+
+    private static final class WaitingForWarmNode extends CauseOfBlockage {
+
+        @Override
+        public String getShortDescription() {
+            return "Waiting for an agent with a working copy of the KB";
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import static com.fasterxml.jackson.annotation.JsonCreator.Mode.PROPERTIES;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hudson.FilePath;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Revision a local KB was last brought to by a successful checkout/update,
+ * kept in a small file in the KB working directory.
+ * <p>
+ * The marker is removed before running a checkout/update and written after
+ * it succeeds, so a failed or interrupted run never leaves a marker behind.
+ *
+ * @author jlr
+ */
+final class GXSWorkspaceMarker {
+
+    static final String FILE_NAME = "GXServer_revision.json";
+
+    private static final Logger LOGGER = Logger.getLogger(GXSWorkspaceMarker.class.getName());
+
+    public final GXSInfo info;
+    public final String localKbVersion;
+
+    @JsonCreator(mode = PROPERTIES)
+    GXSWorkspaceMarker(
+            @JsonProperty("info") GXSInfo info,
+            @JsonProperty("localKbVersion") String localKbVersion) {
+        this.info = info;
+        this.localKbVersion = StringUtils.defaultString(localKbVersion);
+    }
+
+    /**
+     * @param headInfo last revision in GXserver
+     * @param localKbVersion working version of the local KB (may be blank)
+     * @return whether the local KB is already at the given revision
+     */
+    boolean isAt(GXSInfo headInfo, String localKbVersion) {
+        return info != null
+                && info.equals(headInfo)
+                && Objects.equals(this.localKbVersion, StringUtils.defaultString(localKbVersion));
+    }
+
+    /**
+     * @param workingDirectory KB working directory
+     * @return the marker, or null if there is none (or it can't be read)
+     */
+    static GXSWorkspaceMarker read(FilePath workingDirectory) throws InterruptedException {
+        FilePath file = workingDirectory.child(FILE_NAME);
+        try {
+            if (!file.exists()) {
+                return null;
+            }
+            return new ObjectMapper().readValue(file.readToString(), GXSWorkspaceMarker.class);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable revision marker " + file, ex);
+            return null;
+        }
+    }
+
+    static void write(FilePath workingDirectory, GXSInfo info, String localKbVersion) throws IOException, InterruptedException {
+        String json = new ObjectMapper().writeValueAsString(new GXSWorkspaceMarker(info, localKbVersion));
+        workingDirectory.child(FILE_NAME).write(json, StandardCharsets.UTF_8.name());
+    }
+
+    static void delete(FilePath workingDirectory) throws IOException, InterruptedException {
+        FilePath file = workingDirectory.child(FILE_NAME);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+}
@@ -34,6 +34,7 @@ import hudson.Extension;
 import hudson.FilePath;
 import hudson.Launcher;
 import hudson.Util;
+import hudson.model.AbstractBuild;
 import hudson.model.Computer;
 import hudson.model.Item;
 import hudson.model.Job;
@@ -47,23 +48,36 @@ import hudson.scm.PollingResult.Change;
 import hudson.scm.SCM;
 import hudson.scm.SCMDescriptor;
 import hudson.scm.SCMRevisionState;
+import hudson.util.ArgumentListBuilder;
+import hudson.util.DaemonThreadFactory;
 import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
+import hudson.util.NamingThreadFactory;
+import hudson.util.StreamTaskListener;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.UUID;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import jenkins.model.Jenkins;
+import jenkins.triggers.SCMTriggerItem;
 import net.sf.json.JSONObject;
 import org.apache.commons.io.IOCase;
 import org.apache.commons.io.filefilter.WildcardFileFilter;
@@ -76,6 +90,7 @@ import org.jenkinsci.plugins.genexus.helpers.MsBuildInstallationHelper;
 import org.jenkinsci.plugins.genexus.helpers.ToolHelper;
 import org.kohsuke.stapler.AncestorInPath;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.export.Exported;
@@ -91,6 +106,21 @@ public class GeneXusServerSCM extends SCM implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * If set, the revision and changelog are computed after the
+     * checkout/update instead of while it runs.
+     */
+    static final boolean SEQUENTIAL_CHECKOUT = Boolean.getBoolean(GeneXusServerSCM.class.getName() + ".sequentialCheckout");
+
+    /**
+     * If set, the checkout/update is run even when the local KB is known to
+     * be at the last revision already.
+     */
+    static final boolean ALWAYS_UPDATE = Boolean.getBoolean(GeneXusServerSCM.class.getName() + ".alwaysUpdate");
+
+    private static final ExecutorService HISTORY_EXECUTOR = Executors.newCachedThreadPool(
+            new NamingThreadFactory(new DaemonThreadFactory(), "GXserver checkout history"));
+
     // GX installation
     private final String gxInstallationId;
     private final String gxCustomPath;
@@ -116,6 +146,20 @@ public class GeneXusServerSCM extends SCM implements Serializable {
     private final String kbDbName;
     private boolean kbDbInSameFolder = true;
 
+    // Polling filters
+    private String includedObjectTypes;
+    private String excludedObjectTypes;
+    private String includedObjectNames;
+    private String excludedObjectNames;
+    private String includedAuthors;
+    private String excludedAuthors;
+
+    // Shared location for KB snapshots
+    private String kbSnapshotLocation;
+
+    // Use a KB working copy shared with other jobs on the agent
+    private boolean useKbPool;
+
     @DataBoundConstructor
     public GeneXusServerSCM(
             String gxInstallationId,
@@ -231,6 +275,13 @@ public class GeneXusServerSCM extends SCM implements Serializable {
         return serverURL;
     }
 
+    /**
+     * @return URL actually used to connect to GeneXus Server
+     */
+    String getServerConnectionURL() {
+        return GXSConnection.resolveServerURL(getServerURL());
+    }
+
     @Exported
     public String getCredentialsId() {
         return credentialsId;
@@ -276,6 +327,113 @@ public class GeneXusServerSCM extends SCM implements Serializable {
         return kbDbInSameFolder;
     }
 
+    @Exported
+    public String getIncludedObjectTypes() {
+        return includedObjectTypes;
+    }
+
+    @DataBoundSetter
+    public void setIncludedObjectTypes(String includedObjectTypes) {
+        this.includedObjectTypes = Util.fixEmptyAndTrim(includedObjectTypes);
+    }
+
+    @Exported
+    public String getExcludedObjectTypes() {
+        return excludedObjectTypes;
+    }
+
+    @DataBoundSetter
+    public void setExcludedObjectTypes(String excludedObjectTypes) {
+        this.excludedObjectTypes = Util.fixEmptyAndTrim(excludedObjectTypes);
+    }
+
+    @Exported
+    public String getIncludedObjectNames() {
+        return includedObjectNames;
+    }
+
+    @DataBoundSetter
+    public void setIncludedObjectNames(String includedObjectNames) {
+        this.includedObjectNames = Util.fixEmptyAndTrim(includedObjectNames);
+    }
+
+    @Exported
+    public String getExcludedObjectNames() {
+        return excludedObjectNames;
+    }
+
+    @DataBoundSetter
+    public void setExcludedObjectNames(String excludedObjectNames) {
+        this.excludedObjectNames = Util.fixEmptyAndTrim(excludedObjectNames);
+    }
+
+    @Exported
+    public String getIncludedAuthors() {
+        return includedAuthors;
+    }
+
+    @DataBoundSetter
+    public void setIncludedAuthors(String includedAuthors) {
+        this.includedAuthors = Util.fixEmptyAndTrim(includedAuthors);
+    }
+
+    @Exported
+    public String getExcludedAuthors() {
+        return excludedAuthors;
+    }
+
+    @DataBoundSetter
+    public void setExcludedAuthors(String excludedAuthors) {
+        this.excludedAuthors = Util.fixEmptyAndTrim(excludedAuthors);
+    }
+
+    @Exported
+    public String getKbSnapshotLocation() {
+        return kbSnapshotLocation;
+    }
+
+    @DataBoundSetter
+    public void setKbSnapshotLocation(String kbSnapshotLocation) {
+        this.kbSnapshotLocation = Util.fixEmptyAndTrim(kbSnapshotLocation);
+    }
+
+    @Exported
+    public boolean isUseKbPool() {
+        return useKbPool;
+    }
+
+    @DataBoundSetter
+    public void setUseKbPool(boolean useKbPool) {
+        this.useKbPool = useKbPool;
+    }
+
+    /**
+     * Exposes the local KB path as {@code GX_KB_PATH}, so that build steps
+     * (e.g. the GeneXus builder) can refer to the leased working copy.
+     */
+    @Override
+    public void buildEnvironment(@Nonnull Run<?, ?> build, @Nonnull Map<String, String> env) {
+        String kbPath = null;
+        if (useKbPool) {
+            kbPath = GXSKbPool.get().getLeasedPath(build, getKbPoolKey());
+        } else if (build instanceof AbstractBuild) {
+            FilePath workspace = ((AbstractBuild<?, ?>) build).getWorkspace();
+            if (workspace != null) {
+                kbPath = getWorkingDirectory(workspace).getRemote();
+            }
+        }
+
+        if (kbPath != null) {
+            env.put("GX_KB_PATH", kbPath);
+        }
+    }
+
+    private GXSPollingFilter getPollingFilter() {
+        return new GXSPollingFilter(includedObjectTypes, excludedObjectTypes,
+                includedObjectNames, excludedObjectNames,
+                includedAuthors, excludedAuthors);
+    }
+
     @Override
     public ChangeLogParser createChangeLogParser() {
         return new GXSChangeLogParser();
@@ -296,12 +454,24 @@ public class GeneXusServerSCM extends SCM implements Serializable {
         final GXSRevisionState baseline = getSafeBaseline(project, launcher, workspace, listener, _baseline);
         logStream.println("Baseline: Revision #" + baseline.getRevision() + " " + baseline.getRevisionDate());
 
+        GXSConnection gxs = getGXSConnection(project);
         try {
-            GXSConnection gxs = getGXSConnection(project);
-            GetLastRevisionTask getLastRevisionTask = new GetLastRevisionTask(listener, gxs, baseline.getRevisionDate(), new Date());
-            GXSInfo currentInfo = getLastRevisionTask.execute();
+            // Jobs watching the same server/KB/version share a single head query
+            GXSInfo currentInfo = GXSPollingCoordinator.get().getHeadInfo(getKey(), getCredentialsId(), listener, gxs);
             GXSRevisionState currentState = new GXSRevisionState(currentInfo.revision, currentInfo.revisionDate);
             Change stateChange = currentState.getRevision() > baseline.getRevision() ? Change.SIGNIFICANT : Change.NONE;
+
+            GXSPollingFilter filter = getPollingFilter();
+            if (stateChange == Change.SIGNIFICANT && !filter.isEmpty()) {
+                GXSInfo relevantInfo = new GetLastRelevantRevisionTask(listener, gxs, filter, baseline, currentInfo.revisionDate).execute();
+                if (relevantInfo == null) {
+                    logStream.println("All revisions after the baseline were filtered out");
+                    stateChange = Change.INSIGNIFICANT;
+                } else {
+                    logStream.println("Last relevant revision: #" + relevantInfo.revision + " " + relevantInfo.revisionDate);
+                }
+            }
+
             PollingResult result = new PollingResult(baseline, currentState, stateChange);
             
             logStream.println("Current State: Revision #" + currentState.getRevision() + " " + currentState.getRevisionDate());
@@ -309,12 +479,18 @@ public class GeneXusServerSCM extends SCM implements Serializable {
             logStream.println("GXserver Polling was completed successfully");
 
             return result;
+        } catch (GXSCircuitOpenException ex) {
+            logStream.println(ex.getMessage());
+            logStream.println("GXserver polling skipped; keeping baseline as current state");
+            return new PollingResult(baseline, baseline, Change.NONE);
         } catch (IOException | InterruptedException ex) {
             listener.error("GXserver Polling failed: " + ex.toString());
             listener.error(ex.getMessage());
-            
-            logStream.println("GXserver polling returning 'BUILD_NOW' result due to error");
-            return PollingResult.BUILD_NOW;
+
+            // Don't start builds that would fail anyway (and pile up on the
+            // server when it's back); the next poll checks again
+            logStream.println("GXserver polling returning 'NO_CHANGES' result due to error; keeping baseline as current state");
+            return new PollingResult(baseline, baseline, Change.NONE);
         }
     }
 
@@ -355,13 +531,20 @@ public class GeneXusServerSCM extends SCM implements Serializable {
      *
      * @param findClosest If true, this method will go back the build history
      * until it finds a revision file. A build may not have a revision file for
-     * any number of reasons (such as failure, interruption, etc.)
+     * any number of reasons (such as failure, interruption, etc.) The job's
+     * {@link GXSRevisionIndex} is checked first, so that the history is only
+     * walked for builds that are not indexed yet.
      * @return a GXSRevisionState which includes a revision number and date
      */
     @Nonnull
     static GXSRevisionState parseRevisionFile(Run<?, ?> build, boolean findClosest) throws IOException {
-
+        Run<?, ?> start = build;
         if (findClosest) {
+            GXSInfo indexed = GXSRevisionIndex.findClosest(build);
+            if (indexed != null) {
+                return new GXSRevisionState(indexed.revision, indexed.revisionDate);
+            }
+
             for (Run<?, ?> b = build; b != null; b = b.getPreviousBuild()) {
                 if (getRevisionFile(b).exists()) {
                     build = b;
@@ -377,6 +560,9 @@ public class GeneXusServerSCM extends SCM implements Serializable {
         }
 
         GXSInfo info = loadRevisionFile(file);
+        if (findClosest) {
+            GXSRevisionIndex.recordFoundInHistory(start, build, info);
+        }
         return new GXSRevisionState(info.revision, info.revisionDate);
     }
 
@@ -400,8 +586,54 @@ public class GeneXusServerSCM extends SCM implements Serializable {
         Date updateTimestamp = new Date();
         listener.getLogger().println("Using the following timestamp for revisions:" + updateTimestamp.toString());
 
+        GXSConnection gxs = getGXSConnection(build.getParent());
+        FilePath workingDirectory = getWorkingDirectory(build, workspace, listener);
+        GXSKbCopies.get().inUse(build, workspaceToNode(workspace), workingDirectory);
+        GXSKbWarmer.yield(workspaceToNode(workspace), workingDirectory, listener);
+
+        // Skip the (slow) update when the local KB is already at the head
+        GXSInfo headInfo = null;
+        if (!ALWAYS_UPDATE && kbAlreadyExists(workingDirectory)) {
+            GXSWorkspaceMarker marker = GXSWorkspaceMarker.read(workingDirectory);
+            if (marker != null) {
+                headInfo = calcCurrentInfo(workspace, listener, gxs, baseline, updateTimestamp);
+                if (marker.isAt(headInfo, getLocalKbVersion())) {
+                    listener.getLogger().println("Local KB is already at revision #" + headInfo.revision + "; skipping update");
+                    recordKbCopy(build, workspace, workingDirectory, null);
+                    GXSKbCopies.get().atRevision(workspaceToNode(workspace), workingDirectory, headInfo.revision);
+                    saveRevisionFile(build, headInfo);
+                    if (changelogFile != null) {
+                        calcChangeLog(build, workspace, changelogFile, baseline, listener, gxs, headInfo);
+                    }
+                    return;
+                }
+            }
+        }
+
+        // New workspaces start from a copy of the agent's reference KB, if any
+        GXSReferenceKbCache referenceKb = isKbCopyable()
+                ? GXSReferenceKbCache.forNode(workspaceToNode(workspace), getKey(), getLocalKbVersion())
+                : null;
+        // or from the newest KB snapshot, if any
+        GXSKbSnapshots snapshots = getKbSnapshots();
+        boolean seededFromCache = false;
+        String seededDbName = null;
+        if (!kbAlreadyExists(workingDirectory)) {
+            seededFromCache = referenceKb != null && referenceKb.seed(workingDirectory, listener);
+            boolean seeded = seededFromCache || restoreKbSnapshot(snapshots, workspace, workingDirectory, listener);
+            if (seeded) {
+                seededDbName = attachSeededKb(build, workspace, workingDirectory, listener);
+                if (seededDbName == null) {
+                    if (seededFromCache) {
+                        referenceKb.discard();
+                    }
+                    seededFromCache = false;
+                }
+            }
+        }
+
         EnvVars environment = build.getEnvironment(listener);
-        CommandBuilder builder = createCheckoutOrUpdateAction(workspace, environment, listener, build.getParent());
+        GXSWorkspaceMarker.delete(workingDirectory);
 
         // TODO: Add support for parameterized builds
         // hint: see how SubversionSCM.java uses EnvVarsUtils to override env variables
@@ -412,21 +644,277 @@ public class GeneXusServerSCM extends SCM implements Serializable {
          * AbstractBuild) { EnvVarsUtils.overrideAll(env, ((AbstractBuild)
          * build).getBuildVariables()); }
          */
-        // TODO: we should get the actual revision as an output from the checkout or
-        // update
-        // Meanwhile we resort to get the latest revision up to the current time
-        if (!builder.perform(build, workspace, launcher, listener)) {
-            listener.error("Checkout (or update) from GeneXus Server failed");
-            throw new IOException("error executing checkout/update from GeneXus Server");
+        // The revision is computed as the latest one up to updateTimestamp,
+        // which only depends on GXserver, so it is computed (along with the
+        // changelog) while the checkout/update runs. The revision reported by
+        // the checkout/update is then used to detect commits that made it into
+        // the KB after updateTimestamp.
+        final GXSInfo knownHeadInfo = headInfo;
+        if (SEQUENTIAL_CHECKOUT) {
+            Integer reportedRevision = performCheckoutOrUpdate(build, workspace, workingDirectory, environment, launcher, listener,
+                    seededFromCache ? referenceKb : null, seededDbName);
+            GXSInfo currentInfo = knownHeadInfo != null ? knownHeadInfo
+                    : calcCurrentInfo(workspace, listener, gxs, baseline, updateTimestamp);
+            currentInfo = checkReportedRevision(workspace, listener, gxs, currentInfo, reportedRevision);
+            saveRevisionFile(build, currentInfo);
+            afterCheckoutOrUpdate(build, workspace, workingDirectory, currentInfo, referenceKb, snapshots, listener);
+
+            if (changelogFile != null) {
+                calcChangeLog(build, workspace, changelogFile, baseline, listener, gxs, currentInfo);
+            }
+            return;
+        }
+
+        ByteArrayOutputStream historyLog = new ByteArrayOutputStream();
+        TaskListener historyListener = new StreamTaskListener(historyLog, StandardCharsets.UTF_8);
+        Future<GXSInfo> history = HISTORY_EXECUTOR.submit(() -> {
+            GXSInfo currentInfo = knownHeadInfo != null ? knownHeadInfo
+                    : calcCurrentInfo(workspace, historyListener, gxs, baseline, updateTimestamp);
+            if (changelogFile != null) {
+                calcChangeLog(build, workspace, changelogFile, baseline, historyListener, gxs, currentInfo);
+            }
+            return currentInfo;
+        });
+
+        GXSInfo computedInfo;
+        Integer reportedRevision;
+        try {
+            reportedRevision = performCheckoutOrUpdate(build, workspace, workingDirectory, environment, launcher, listener,
+                    seededFromCache ? referenceKb : null, seededDbName);
+            computedInfo = joinHistory(history);
+        } finally {
+            history.cancel(true);
+            historyListener.getLogger().flush();
+            listener.getLogger().write(historyLog.toByteArray());
+        }
+
+        GXSInfo currentInfo = checkReportedRevision(workspace, listener, gxs, computedInfo, reportedRevision);
+        if (currentInfo != computedInfo && changelogFile != null) {
+            calcChangeLog(build, workspace, changelogFile, baseline, listener, gxs, currentInfo);
         }
 
         // Create new revision file
-        GXSConnection gxs = getGXSConnection(build.getParent());
-        GXSInfo currentInfo = calcCurrentInfo(workspace, listener, gxs, baseline, updateTimestamp);
         saveRevisionFile(build, currentInfo);
+        afterCheckoutOrUpdate(build, workspace, workingDirectory, currentInfo, referenceKb, snapshots, listener);
+    }
 
-        if (changelogFile != null) {
-            calcChangeLog(build, workspace, changelogFile, baseline, listener, gxs, currentInfo);
+    /**
+     * KBs are only copied (to seed workspaces or as snapshots) when their
+     * database files are in the KB folder and the plugin names their
+     * database, so that every copy can get a database of its own.
+     */
+    private boolean isKbCopyable() {
+        return isKbDbInSameFolder() && StringUtils.isBlank(getKbDbName());
+    }
+
+    /**
+     * Gives a KB just copied from the reference KB or a snapshot a database
+     * of its own. If that fails, the copy is removed.
+     *
+     * @return name of the KB database, or null if the copy was removed
+     */
+    private String attachSeededKb(Run<?, ?> build, FilePath workspace, FilePath workingDirectory, TaskListener listener) throws IOException, InterruptedException {
+        String dbName = prepareKbDb(build, workspace, workingDirectory, listener);
+        try {
+            GXSKbDatabases.attachCopy(workspaceToNode(workspace), getKbDbServerInstance(), getKbDbCredentials(build.getParent()),
+                    workingDirectory, dbName, listener);
+            return dbName;
+        } catch (IOException ex) {
+            listener.error("Could not attach the database of the copied KB; doing a full checkout: " + ex.getMessage());
+            workingDirectory.deleteContents();
+            return null;
+        }
+    }
+
+    /**
+     * Runs the checkout/update. If updating a KB copied from the reference
+     * KB or a snapshot fails, the copy is discarded (along with the reference
+     * KB it came from, if any) and a full checkout is done instead.
+     *
+     * @param seededDbName name of the database attached to a KB copied from
+     * the reference KB or a snapshot, or null if the KB wasn't copied
+     * @return the revision reported by TeamDev, or null if none was found in
+     * its output
+     */
+    private Integer performCheckoutOrUpdate(Run<?, ?> build, FilePath workspace, FilePath workingDirectory, EnvVars environment,
+            Launcher launcher, TaskListener listener, GXSReferenceKbCache referenceKb, String seededDbName) throws IOException, InterruptedException {
+        String dbName = kbAlreadyExists(workingDirectory) ? seededDbName : prepareKbDb(build, workspace, workingDirectory, listener);
+        CommandBuilder builder = createCheckoutOrUpdateAction(workspace, workingDirectory, dbName, environment, listener, build.getParent());
+        try {
+            Integer revision = performCheckoutOrUpdate(builder, build, workspace, launcher, listener);
+            recordKbCopy(build, workspace, workingDirectory, dbName);
+            return revision;
+        } catch (IOException ex) {
+            if (seededDbName == null) {
+                throw ex;
+            }
+
+            listener.getLogger().println("Update of the copied KB failed; doing a full checkout");
+            if (referenceKb != null) {
+                referenceKb.discard();
+            }
+            workingDirectory.deleteContents();
+            dbName = prepareKbDb(build, workspace, workingDirectory, listener);
+            builder = createCheckoutOrUpdateAction(workspace, workingDirectory, dbName, environment, listener, build.getParent());
+            Integer revision = performCheckoutOrUpdate(builder, build, workspace, launcher, listener);
+            recordKbCopy(build, workspace, workingDirectory, dbName);
+            return revision;
+        }
+    }
+
+    /**
+     * Records the working copy in {@link GXSKbCopies}, so that it can be
+     * evicted (along with its database) when the agent runs out of space.
+     *
+     * @param dbName name of the KB database if the KB was just checked out,
+     * null otherwise (only recorded if it was generated by the plugin)
+     */
+    private void recordKbCopy(Run<?, ?> build, FilePath workspace, FilePath workingDirectory, String dbName) {
+        boolean dbConfigured = StringUtils.isNotBlank(getKbDbName());
+        GXSKbCopies.get().used(build, workspaceToNode(workspace), workingDirectory, getKey(),
+                getKbDbServerInstance(), dbConfigured ? null : dbName, dbConfigured, getKbDbCredentialsId());
+    }
+
+    /**
+     * Updates the reference KB and takes a snapshot, when they are due. The
+     * KB database is detached meanwhile, so that its files can be copied.
+     */
+    private void afterCheckoutOrUpdate(Run<?, ?> build, FilePath workspace, FilePath workingDirectory, GXSInfo currentInfo,
+            GXSReferenceKbCache referenceKb, GXSKbSnapshots snapshots, TaskListener listener) throws IOException, InterruptedException {
+        GXSWorkspaceMarker.write(workingDirectory, currentInfo, getLocalKbVersion());
+        GXSKbCopies.get().atRevision(workspaceToNode(workingDirectory), workingDirectory, currentInfo.revision);
+
+        boolean refreshReferenceKb = referenceKb != null && referenceKb.isStale();
+        boolean saveSnapshot = snapshots != null && snapshots.isDue(workingDirectory, currentInfo.revision);
+        if (!refreshReferenceKb && !saveSnapshot) {
+            return;
+        }
+
+        GXSKbDatabases.Detached detached;
+        try {
+            detached = GXSKbDatabases.detach(workspaceToNode(workspace), getKbDbServerInstance(),
+                    getKbDbCredentials(build.getParent()), workingDirectory, listener);
+        } catch (IOException ex) {
+            // the build can go on without them
+            listener.error("Could not detach the KB database to copy the KB: " + ex.getMessage());
+            return;
+        }
+
+        // failing to attach the database back fails the build
+        try (detached) {
+            if (refreshReferenceKb) {
+                try {
+                    referenceKb.refresh(workingDirectory, listener);
+                } catch (IOException ex) {
+                    listener.error("Could not update the reference KB: " + ex.getMessage());
+                }
+            }
+            if (saveSnapshot) {
+                try {
+                    snapshots.save(workingDirectory, currentInfo.revision, listener);
+                } catch (IOException ex) {
+                    listener.error("Could not save a KB snapshot: " + ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Snapshots are only taken when the KB can be copied (see
+     * {@link #isKbCopyable()}).
+     */
+    private GXSKbSnapshots getKbSnapshots() {
+        if (kbSnapshotLocation == null || !isKbCopyable()) {
+            return null;
+        }
+        return new GXSKbSnapshots(kbSnapshotLocation, getKey(), getLocalKbVersion());
+    }
+
+    private static boolean restoreKbSnapshot(GXSKbSnapshots snapshots, FilePath workspace, FilePath workingDirectory,
+            TaskListener listener) throws IOException, InterruptedException {
+        if (snapshots == null) {
+            return false;
+        }
+
+        FilePath root = workspaceToNode(workspace).getRootPath();
+        if (root == null) {
+            return false;
+        }
+
+        try {
+            return snapshots.restore(workingDirectory, root.child("gxserver-kb-snapshots"), listener);
+        } catch (IOException ex) {
+            listener.error("Could not restore a KB snapshot: " + ex.getMessage());
+            if (workingDirectory.exists()) {
+                workingDirectory.deleteContents();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Runs the checkout/update.
+     *
+     * @return the revision reported by TeamDev, or null if none was found in
+     * its output
+     */
+    private static Integer performCheckoutOrUpdate(CommandBuilder builder, Run<?, ?> build, FilePath workspace,
+            Launcher launcher, TaskListener listener) throws IOException, InterruptedException {
+        GXSRevisionOutputScanner scanner = new GXSRevisionOutputScanner(listener.getLogger(), build.getCharset());
+        boolean succeeded;
+        try {
+            succeeded = builder.perform(build, workspace, launcher, listener, scanner);
+        } finally {
+            // flush a last line without newline even if the command failed
+            scanner.finish();
+        }
+        if (!succeeded) {
+            listener.error("Checkout (or update) from GeneXus Server failed");
+            throw new IOException("error executing checkout/update from GeneXus Server");
+        }
+        return scanner.getRevision();
+    }
+
+    /**
+     * Compares the revision reported by the checkout/update with the one
+     * computed from GXserver history. When the KB got a later revision (it
+     * was committed while the update was running) GXserver is asked for it,
+     * since the output has no date; if that doesn't confirm it, the computed
+     * revision is kept.
+     */
+    private GXSInfo checkReportedRevision(FilePath workspace, TaskListener listener, GXSConnection gxs, GXSInfo computedInfo,
+            Integer reportedRevision) throws IOException, InterruptedException {
+        if (reportedRevision == null || reportedRevision == computedInfo.revision) {
+            return computedInfo;
+        }
+
+        listener.getLogger().println("Checkout (or update) reported revision #" + reportedRevision
+                + " while the last revision before it started was #" + computedInfo.revision);
+        if (reportedRevision < computedInfo.revision) {
+            return computedInfo;
+        }
+
+        GXSInfo reportedInfo = calcCurrentInfo(workspace, listener, gxs, computedInfo.revisionDate, new Date());
+        if (reportedInfo.revision != reportedRevision) {
+            listener.getLogger().println("GXserver returned revision #" + reportedInfo.revision
+                    + "; keeping revision #" + computedInfo.revision);
+            return computedInfo;
+        }
+        return reportedInfo;
+    }
+
+    private static GXSInfo joinHistory(Future<GXSInfo> history) throws IOException, InterruptedException {
+        try {
+            return history.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            throw new IOException("error computing revision and changelog from GeneXus Server", cause);
         }
     }
 
@@ -523,6 +1011,7 @@ public class GeneXusServerSCM extends SCM implements Serializable {
 
     private static void saveRevisionFile(Run<?, ?> build, GXSInfo info) throws IOException {
         saveRevisionFile(getRevisionFile(build), info);
+        GXSRevisionIndex.record(build, info);
     }
 
     private static void saveRevisionFile(File file, GXSInfo info) throws IOException {
@@ -535,15 +1024,15 @@ public class GeneXusServerSCM extends SCM implements Serializable {
         return mapper.readValue(file, GXSInfo.class);
     }
 
-    private CommandBuilder createCheckoutOrUpdateAction(FilePath workspace, EnvVars environment, TaskListener listener, Item context) throws IOException, InterruptedException {
-        if (!kbAlreadyExists(getWorkingDirectory(workspace))) {
-            return createCheckoutAction(workspace, environment, listener, context);
+    private CommandBuilder createCheckoutOrUpdateAction(FilePath workspace, FilePath workingDirectory, String dbName, EnvVars environment, TaskListener listener, Item context) throws IOException, InterruptedException {
+        if (!kbAlreadyExists(workingDirectory)) {
+            return createCheckoutAction(workspace, workingDirectory, dbName, environment, listener, context);
         }
 
-        return createUpdateAction(workspace, environment, listener, context);
+        return createUpdateAction(workspace, workingDirectory, environment, listener, context);
     }
 
-    private MsBuildArgumentListBuilder createBaseMsBuildArgs(FilePath workspace, EnvVars environment, TaskListener listener, Item context, String... targetNames) {
+    private MsBuildArgumentListBuilder createBaseMsBuildArgs(FilePath workspace, FilePath workingDirectory, EnvVars environment, TaskListener listener, Item context, String... targetNames) {
         MsBuildArgumentListBuilder msbArgs = new MsBuildArgumentListBuilder(getMsBuildFile(workspace, environment, listener));
         msbArgs.addTargets(targetNames);
 
@@ -559,7 +1048,7 @@ public class GeneXusServerSCM extends SCM implements Serializable {
             msbArgs.addProperty("ServerKbVersion", getKbVersion());
         }
 
-        msbArgs.addProperty("WorkingDirectory", getWorkingDirectory(workspace));
+        msbArgs.addProperty("WorkingDirectory", workingDirectory);
 
         StandardUsernamePasswordCredentials kbDbCredentials = getKbDbCredentials(context);
         if (kbDbCredentials != null) {
@@ -571,18 +1060,37 @@ public class GeneXusServerSCM extends SCM implements Serializable {
         return msbArgs;
     }
 
-    private CommandBuilder createUpdateAction(FilePath workspace, EnvVars environment, TaskListener listener, Item context) throws IOException, InterruptedException {
-        MsBuildArgumentListBuilder msbArgs = createBaseMsBuildArgs(workspace, environment, listener, context, "Update");
+    private CommandBuilder createUpdateAction(FilePath workspace, FilePath workingDirectory, EnvVars environment, TaskListener listener, Item context) throws IOException, InterruptedException {
+        return new CommandBuilder(createUpdateArgs(workspace, workingDirectory, environment, listener, context));
+    }
+
+    private MsBuildArgumentListBuilder createUpdateArgs(FilePath workspace, FilePath workingDirectory, EnvVars environment, TaskListener listener, Item context) throws IOException, InterruptedException {
+        MsBuildArgumentListBuilder msbArgs = createBaseMsBuildArgs(workspace, workingDirectory, environment, listener, context, "Update");
 
         if (StringUtils.isNotBlank(getLocalKbVersion())) {
             msbArgs.addProperty("WorkingVersion", getLocalKbVersion());
         }
 
-        return createMsBuildAction(workspace, environment, listener, msbArgs);
+        prependMsBuildPath(workspace, environment, listener, msbArgs);
+        return msbArgs;
+    }
+
+    /**
+     * Gets the command that updates a KB working copy outside of a build, as
+     * done by {@link GXSKbWarmer}.
+     *
+     * @param job job that uses the working copy (for credentials)
+     * @param workingDirectory KB working directory
+     * @param environment environment of the node
+     * @param listener listener for messages about tool resolution
+     * @return command line to launch in the working copy's node
+     */
+    ArgumentListBuilder createUpdateCommand(Job<?, ?> job, FilePath workingDirectory, EnvVars environment, TaskListener listener) throws IOException, InterruptedException {
+        return createUpdateArgs(workingDirectory, workingDirectory, environment, listener, job);
     }
 
-    private CommandBuilder createCheckoutAction(FilePath workspace, EnvVars environment, TaskListener listener, Item context) throws IOException, InterruptedException {
-        MsBuildArgumentListBuilder msbArgs = createBaseMsBuildArgs(workspace, environment, listener, context, "Checkout");
+    private CommandBuilder createCheckoutAction(FilePath workspace, FilePath workingDirectory, String dbName, EnvVars environment, TaskListener listener, Item context) throws IOException, InterruptedException {
+        MsBuildArgumentListBuilder msbArgs = createBaseMsBuildArgs(workspace, workingDirectory, environment, listener, context, "Checkout");
 
         msbArgs.addProperty("ServerUrl", getServerURL());
         msbArgs.addProperty("ServerKbAlias", getKbName());
@@ -594,12 +1102,34 @@ public class GeneXusServerSCM extends SCM implements Serializable {
             msbArgs.addProperty("DbaseServerInstance", getKbDbServerInstance());
         }
 
-        msbArgs.addProperty("DbaseName", getSafeKbDbName(getKbName(), getKbDbName()));
+        msbArgs.addProperty("DbaseName", dbName);
         msbArgs.addProperty("CreateDbInKbFolder", isKbDbInSameFolder());
 
         return createMsBuildAction(workspace, environment, listener, msbArgs);
     }
 
+    /**
+     * Gets the KB working directory for a build, leasing one from the
+     * agent's {@link GXSKbPool} if the job uses it.
+     */
+    private FilePath getWorkingDirectory(Run<?, ?> build, FilePath workspace, TaskListener listener) throws IOException, InterruptedException {
+        if (useKbPool) {
+            return GXSKbPool.get().acquire(build, workspaceToNode(workspace), getKbPoolKey(), listener);
+        }
+
+        return getWorkingDirectory(workspace);
+    }
+
+    /**
+     * Jobs share pooled working copies only if they check out the same KB
+     * with the same KB database settings.
+     */
+    private String getKbPoolKey() {
+        return String.join("\n", getKey(), StringUtils.defaultString(getLocalKbVersion()),
+                StringUtils.defaultString(getKbDbServerInstance()), StringUtils.defaultString(getKbDbName()),
+                Boolean.toString(isKbDbInSameFolder()));
+    }
+
     private FilePath getWorkingDirectory(FilePath workspace) {
         if (!StringUtils.isBlank(getLocalKbPath())) {
             return new FilePath(workspace, getLocalKbPath());
@@ -615,20 +1145,37 @@ public class GeneXusServerSCM extends SCM implements Serializable {
     }
 
     private CommandBuilder createMsBuildAction(FilePath workspace, EnvVars environment, TaskListener listener, MsBuildArgumentListBuilder msbArgs) throws IOException, InterruptedException {
+        prependMsBuildPath(workspace, environment, listener, msbArgs);
+        return new CommandBuilder(msbArgs);
+    }
+
+    private void prependMsBuildPath(FilePath workspace, EnvVars environment, TaskListener listener, MsBuildArgumentListBuilder msbArgs) throws IOException, InterruptedException {
         String msbuildExePath = ToolHelper.getToolFullPath(
                 workspace,
                 getMsBuildPath(workspace, environment, listener),
                 "msbuild.exe");
         msbArgs.prepend(msbuildExePath);
-        return new CommandBuilder(msbArgs);
     }
 
-    private static String getSafeKbDbName(String kbName, String kbDbName) {
-        if (StringUtils.isNotBlank(kbDbName)) {
-            return kbDbName;
+    /**
+     * Gets the name of the database for a KB about to be checked out. Unless
+     * one is configured, the name is derived from the working directory and
+     * any leftover database with that name (from a KB that is no longer
+     * there) is dropped first.
+     */
+    private String prepareKbDb(Run<?, ?> build, FilePath workspace, FilePath workingDirectory, TaskListener listener) throws InterruptedException {
+        if (StringUtils.isNotBlank(getKbDbName())) {
+            return getKbDbName();
         }
 
-        return "GX_KB_" + kbName + "_" + UUID.randomUUID().toString();
+        Node node = workspaceToNode(workspace);
+        String dbName = GXSKbDatabases.getDefaultName(getKbName(), node, workingDirectory);
+        try {
+            GXSKbDatabases.drop(node, getKbDbServerInstance(), dbName, getKbDbCredentials(build.getParent()), listener);
+        } catch (IOException ex) {
+            listener.error("Could not drop leftover KB database " + dbName + ": " + ex.getMessage());
+        }
+        return dbName;
     }
 
     /**
@@ -661,6 +1208,19 @@ public class GeneXusServerSCM extends SCM implements Serializable {
 
     @Override
     public String getKey() {
+        return createKey(serverURL, kbName, kbVersion);
+    }
+
+    /**
+     * Builds the value returned by {@link #getKey()} for a given server, KB
+     * and version.
+     *
+     * @param serverURL URL of the GeneXus Server
+     * @param kbName name of the KB in the server
+     * @param kbVersion name of the KB version (may be blank)
+     * @return key identifying the server/KB/version
+     */
+    public static String createKey(String serverURL, String kbName, String kbVersion) {
         StringBuilder b = new StringBuilder("gxserver");
         b.append(' ').append(serverURL);
         b.append(',').append(kbName);
@@ -670,6 +1230,27 @@ public class GeneXusServerSCM extends SCM implements Serializable {
         return b.toString();
     }
 
+    /**
+     * Gets the GeneXus Server SCMs configured in a job (freestyle or
+     * pipeline).
+     *
+     * @param job a job
+     * @return list of SCMs, possibly empty
+     */
+    @Nonnull
+    public static List<GeneXusServerSCM> getGeneXusServerSCMs(Job<?, ?> job) {
+        List<GeneXusServerSCM> result = new ArrayList<>();
+        SCMTriggerItem item = SCMTriggerItem.SCMTriggerItems.asSCMTriggerItem(job);
+        if (item != null) {
+            for (SCM scm : item.getSCMs()) {
+                if (scm instanceof GeneXusServerSCM) {
+                    result.add((GeneXusServerSCM) scm);
+                }
+            }
+        }
+        return result;
+    }
+
     @Extension
     public static final class DescriptorImpl extends SCMDescriptor<GeneXusServerSCM> {
 
@@ -88,6 +88,20 @@ public final class GeneXusServerStep extends SCMStep {
     private String kbDbName = "";
     private boolean kbDbInSameFolder = true;
 
+    // Polling filters
+    private String includedObjectTypes;
+    private String excludedObjectTypes;
+    private String includedObjectNames;
+    private String excludedObjectNames;
+    private String includedAuthors;
+    private String excludedAuthors;
+
+    // Shared location for KB snapshots
+    private String kbSnapshotLocation;
+
+    // Use a KB working copy shared with other jobs on the agent
+    private boolean useKbPool;
+
     @DataBoundConstructor
     public GeneXusServerStep(String serverURL, String credentialsId, String kbName) {
         this(
@@ -143,7 +157,7 @@ public final class GeneXusServerStep extends SCMStep {
 
     @Override
     protected SCM createSCM() {
-        return new GeneXusServerSCM(
+        GeneXusServerSCM scm = new GeneXusServerSCM(
                 gxInstallationId,
                 gxCustomPath,
                 msbuildCustomPath,
@@ -157,6 +171,16 @@ public final class GeneXusServerStep extends SCMStep {
                 kbDbCredentialsId,
                 kbDbName,
                 kbDbInSameFolder);
+
+        scm.setIncludedObjectTypes(includedObjectTypes);
+        scm.setExcludedObjectTypes(excludedObjectTypes);
+        scm.setIncludedObjectNames(includedObjectNames);
+        scm.setExcludedObjectNames(excludedObjectNames);
+        scm.setIncludedAuthors(includedAuthors);
+        scm.setExcludedAuthors(excludedAuthors);
+        scm.setKbSnapshotLocation(kbSnapshotLocation);
+        scm.setUseKbPool(useKbPool);
+        return scm;
     }
 
     @Exported
@@ -276,6 +300,86 @@ public final class GeneXusServerStep extends SCMStep {
         this.kbDbInSameFolder = kbDbInSameFolder;
     }
 
+    @Exported
+    public String getIncludedObjectTypes() {
+        return includedObjectTypes;
+    }
+
+    @DataBoundSetter
+    public void setIncludedObjectTypes(String includedObjectTypes) {
+        this.includedObjectTypes = Util.fixEmptyAndTrim(includedObjectTypes);
+    }
+
+    @Exported
+    public String getExcludedObjectTypes() {
+        return excludedObjectTypes;
+    }
+
+    @DataBoundSetter
+    public void setExcludedObjectTypes(String excludedObjectTypes) {
+        this.excludedObjectTypes = Util.fixEmptyAndTrim(excludedObjectTypes);
+    }
+
+    @Exported
+    public String getIncludedObjectNames() {
+        return includedObjectNames;
+    }
+
+    @DataBoundSetter
+    public void setIncludedObjectNames(String includedObjectNames) {
+        this.includedObjectNames = Util.fixEmptyAndTrim(includedObjectNames);
+    }
+
+    @Exported
+    public String getExcludedObjectNames() {
+        return excludedObjectNames;
+    }
+
+    @DataBoundSetter
+    public void setExcludedObjectNames(String excludedObjectNames) {
+        this.excludedObjectNames = Util.fixEmptyAndTrim(excludedObjectNames);
+    }
+
+    @Exported
+    public String getIncludedAuthors() {
+        return includedAuthors;
+    }
+
+    @DataBoundSetter
+    public void setIncludedAuthors(String includedAuthors) {
+        this.includedAuthors = Util.fixEmptyAndTrim(includedAuthors);
+    }
+
+    @Exported
+    public String getExcludedAuthors() {
+        return excludedAuthors;
+    }
+
+    @DataBoundSetter
+    public void setExcludedAuthors(String excludedAuthors) {
+        this.excludedAuthors = Util.fixEmptyAndTrim(excludedAuthors);
+    }
+
+    @Exported
+    public String getKbSnapshotLocation() {
+        return kbSnapshotLocation;
+    }
+
+    @DataBoundSetter
+    public void setKbSnapshotLocation(String kbSnapshotLocation) {
+        this.kbSnapshotLocation = Util.fixEmptyAndTrim(kbSnapshotLocation);
+    }
+
+    @Exported
+    public boolean isUseKbPool() {
+        return useKbPool;
+    }
+
+    @DataBoundSetter
+    public void setUseKbPool(boolean useKbPool) {
+        this.useKbPool = useKbPool;
+    }
+
     @Extension
     public static class DescriptorImpl extends SCMStepDescriptor {
 
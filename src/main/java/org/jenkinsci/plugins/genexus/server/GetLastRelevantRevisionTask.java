@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.genexus.gxserver.client.clients.RevisionsQuery;
+import com.genexus.gxserver.client.info.RevisionInfo;
+import hudson.model.TaskListener;
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ *
+ * @author jlr
+ *
+ * Looks for the most recent revision of a remote KB, newer than a baseline,
+ * that is relevant according to a {@link GXSPollingFilter}.
+ */
+public class GetLastRelevantRevisionTask {
+
+    private final TaskListener listener;
+    private final GXSConnection gxsConnection;
+    private final GXSPollingFilter filter;
+    private final GXSRevisionState baseline;
+    private final Date toTimestamp;
+
+    GetLastRelevantRevisionTask(TaskListener listener, GXSConnection gxsConnection, GXSPollingFilter filter, GXSRevisionState baseline, Date toTimestamp) {
+        this.listener = listener;
+        this.gxsConnection = gxsConnection;
+        this.filter = filter;
+        this.baseline = baseline;
+        this.toTimestamp = DateUtils.cloneIfNotNull(toTimestamp);
+    }
+
+    /**
+     * @return null if every revision after the baseline was filtered out.
+     * Otherwise the most recent relevant revision.
+     */
+    public GXSInfo execute() throws IOException, InterruptedException {
+        return GXSCircuitBreaker.forServer(gxsConnection.getServerURL()).call(() -> GXSCallExecutor.get()
+                .call(gxsConnection.getServerURL(), "Checking revisions against polling filters", this::findLastRelevantRevision));
+    }
+
+    private GXSInfo findLastRelevantRevision() throws IOException {
+        // revisions at the baseline date itself were already built
+        Date fromTimestamp = new Date(baseline.getRevisionDate().getTime() + 1000);
+
+        try (GXSClientPool.Lease lease = GXSClientPool.get().acquire(gxsConnection)) {
+            boolean succeeded = false;
+            try {
+                RevisionsQuery query = new RevisionsQuery(lease.getClient(), gxsConnection.getKbName(), gxsConnection.getKbVersion(), fromTimestamp, toTimestamp);
+
+                // revisions come in descending order, so the first relevant
+                // one is the most recent
+                GXSInfo result = null;
+                for (RevisionInfo revision : query) {
+                    if (revision.id <= baseline.getRevision()) {
+                        break;
+                    }
+
+                    if (filter.isRelevant(revision)) {
+                        result = new GXSInfo(gxsConnection, revision.id, revision.date);
+                        break;
+                    }
+
+                    listener.getLogger().println("Ignoring revision #" + revision.id + " by " + revision.author + " (filtered out)");
+                }
+                succeeded = true;
+                return result;
+            } finally {
+                if (!succeeded) {
+                    lease.invalidate();
+                }
+            }
+        } catch (RuntimeException ex) {
+            throw new IOException("Error checking revisions against polling filters", ex);
+        }
+    }
+}
@@ -30,7 +30,6 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import com.genexus.gxserver.client.info.RevisionInfo;
 import com.genexus.gxserver.client.clients.RevisionsQuery;
-import com.genexus.gxserver.client.clients.TeamWorkService2Client;
 
 /**
  *
@@ -61,27 +60,66 @@ public class GetLastRevisionTask {
      * info.
      */
     public GXSInfo execute() throws IOException, InterruptedException {
-        return getLatestRevisionInfo();
+        GXSInfo storedInfo = getStoredRevisionInfo();
+        if (storedInfo != null) {
+            return storedInfo;
+        }
+
+        return GXSCallExecutor.get().call(gxsConnection.getServerURL(), "Checking for last revision", this::getLatestRevisionInfo);
+    }
+
+    /**
+     * @return null unless the range is already covered by the local history
+     * store
+     */
+    private GXSInfo getStoredRevisionInfo() throws IOException {
+        GXSHistoryStore store = GXSHistoryStore.forConnection(gxsConnection);
+        if (store == null || fromTimestamp == null || toTimestamp == null || !store.covers(fromTimestamp, toTimestamp)) {
+            return null;
+        }
+
+        return getStoredRevisionInfo(store);
+    }
+
+    private GXSInfo getStoredRevisionInfo(GXSHistoryStore store) throws IOException {
+        GXSHistoryRecord latest = store.findLatest(fromTimestamp, toTimestamp);
+        if (latest == null) {
+            return new GXSInfo(gxsConnection, 0, new Date(0));
+        }
+
+        return new GXSInfo(gxsConnection, latest.id, latest.date);
     }
 
     private GXSInfo getLatestRevisionInfo() throws IOException {
-        try {
-            TeamWorkService2Client twClient = new TeamWorkService2Client(
-                    gxsConnection.getServerURL(),
-                    gxsConnection.getUserName(),
-                    gxsConnection.getUserPassword()
-            );
-
-            RevisionsQuery query = new RevisionsQuery(twClient, gxsConnection.getKbName(), gxsConnection.getKbVersion(), fromTimestamp, toTimestamp);
-
-            // We are assuming revisions always come in descending order, so we
-            // just take the first revision as the most recent one.
-            RevisionInfo latestRevision = query.getFirstItem();
-            if (latestRevision == null) {
-                return new GXSInfo(gxsConnection, 0, new Date(0));
-            }
+        try (GXSClientPool.Lease lease = GXSClientPool.get().acquire(gxsConnection)) {
+            boolean succeeded = false;
+            try {
+                // the store only covers up to its newest revision, so the
+                // tail is asked to GXserver and kept for the next time
+                GXSHistoryStore store = GXSHistoryStore.forConnection(gxsConnection);
+                if (store != null && fromTimestamp != null && toTimestamp != null
+                        && store.update(lease.getClient(), gxsConnection, fromTimestamp, toTimestamp, listener, new GXSFetchStats())) {
+                    GXSInfo storedInfo = getStoredRevisionInfo(store);
+                    succeeded = true;
+                    return storedInfo;
+                }
+
+                RevisionsQuery query = new RevisionsQuery(lease.getClient(), gxsConnection.getKbName(), gxsConnection.getKbVersion(), fromTimestamp, toTimestamp);
 
-            return new GXSInfo(gxsConnection, latestRevision.id, latestRevision.date);
+                // We are assuming revisions always come in descending order, so we
+                // just take the first revision as the most recent one.
+                RevisionInfo latestRevision = query.getFirstItem();
+                succeeded = true;
+                if (latestRevision == null) {
+                    return new GXSInfo(gxsConnection, 0, new Date(0));
+                }
+
+                return new GXSInfo(gxsConnection, latestRevision.id, latestRevision.date);
+            } finally {
+                if (!succeeded) {
+                    lease.invalidate();
+                }
+            }
         } catch (IOException ex) {
             Logger.getLogger(GetLastRevisionTask.class.getName()).log(Level.SEVERE, null, ex);
             throw new IOException("Error checking for last revision", ex);
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSAdaptivePollingIntervalTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long T0 = 1_600_000_000_000L;
+    private static final long MIN = TimeUnit.SECONDS.toMillis(GXSAdaptivePollingInterval.MIN_INTERVAL_SECONDS);
+    private static final long MAX = Math.max(MIN, TimeUnit.SECONDS.toMillis(GXSAdaptivePollingInterval.MAX_INTERVAL_SECONDS));
+
+    private static GXSInfo head(long revision, long date) {
+        return new GXSInfo("http://localhost/genexusserver", "KB", "", revision, new Date(date));
+    }
+
+    @Test
+    public void testMinimumBeforeAnyHead() {
+        assertEquals(MIN, new GXSAdaptivePollingInterval().getIntervalMillis(T0));
+    }
+
+    @Test
+    public void testBusyVersionIsClampedToMinimum() {
+        GXSAdaptivePollingInterval interval = new GXSAdaptivePollingInterval();
+        for (int i = 0; i < 10; i++) {
+            interval.observe(head(100 + i, T0 + i * 1000L));
+        }
+
+        assertEquals(MIN, interval.getIntervalMillis(T0 + 10_000));
+    }
+
+    @Test
+    public void testFrozenVersionIsClampedToMaximum() {
+        GXSAdaptivePollingInterval interval = new GXSAdaptivePollingInterval();
+        interval.observe(head(100, T0));
+        interval.observe(head(101, T0 + HOUR));
+
+        assertEquals(MAX, interval.getIntervalMillis(T0 + TimeUnit.DAYS.toMillis(30)));
+    }
+
+    @Test
+    public void testMovingAverage() {
+        GXSAdaptivePollingInterval interval = new GXSAdaptivePollingInterval();
+        interval.observe(head(10, T0));
+        interval.observe(head(11, T0 + HOUR));
+        // one hour per revision, nothing elapsed since the last one
+        assertEquals(clamp(HOUR / 2 / 4), interval.getIntervalMillis(T0 + HOUR));
+
+        // two revisions in two hours: still one hour per revision
+        interval.observe(head(13, T0 + 3 * HOUR));
+        assertEquals(clamp(HOUR / 2 / 4), interval.getIntervalMillis(T0 + 3 * HOUR));
+
+        // a two hour gap moves the average by 0.3 of the difference
+        interval.observe(head(14, T0 + 5 * HOUR));
+        long average = (long) (0.3 * 2 * HOUR + 0.7 * HOUR);
+        assertEquals(clamp(average / 2 / 4), interval.getIntervalMillis(T0 + 5 * HOUR), 1);
+    }
+
+    @Test
+    public void testSameHeadIsNotASample() {
+        GXSAdaptivePollingInterval interval = new GXSAdaptivePollingInterval();
+        interval.observe(head(10, T0));
+        interval.observe(head(11, T0 + HOUR));
+        interval.observe(head(11, T0 + HOUR));
+        interval.observe(head(11, T0 + HOUR));
+
+        assertEquals(clamp(HOUR / 2 / 4), interval.getIntervalMillis(T0 + HOUR));
+    }
+
+    private static long clamp(long millis) {
+        return Math.max(MIN, Math.min(MAX, millis));
+    }
+}
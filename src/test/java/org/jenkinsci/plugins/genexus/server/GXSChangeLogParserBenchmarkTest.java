@@ -0,0 +1,202 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.apache.commons.digester3.Digester;
+import org.jenkinsci.plugins.genexus.server.GXSChangeLogSet.Action;
+import org.jenkinsci.plugins.genexus.server.GXSChangeLogSet.LogEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xml.sax.InputSource;
+
+/**
+ * Checks that the StAX parser reads a changelog like the Commons Digester
+ * rules it replaced did.
+ * <p>
+ * The time and memory each one takes to parse a large changelog is only
+ * measured when the {@code run} system property is set, for instance with
+ * {@code mvn test -Dtest=GXSChangeLogParserBenchmarkTest
+ * -Dorg.jenkinsci.plugins.genexus.server.GXSChangeLogParserBenchmarkTest.run=true}.
+ *
+ * @author jlr
+ */
+public class GXSChangeLogParserBenchmarkTest {
+
+    private static final boolean RUN = Boolean.getBoolean(GXSChangeLogParserBenchmarkTest.class.getName() + ".run");
+
+    private static final int ENTRIES = 500;
+    private static final int BENCHMARK_ENTRIES = 5000;
+    private static final int ACTIONS_PER_ENTRY = 10;
+    private static final int ROUNDS = 5;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private interface Parser {
+
+        List<LogEntry> parse(File file) throws Exception;
+    }
+
+    @Test
+    public void testStaxMatchesDigester() throws Exception {
+        File file = writeLog(ENTRIES);
+
+        List<LogEntry> stax = GXSChangeLogParser.parse(file);
+        List<LogEntry> digester = parseWithDigester(file);
+        assertEquals(ENTRIES, stax.size());
+        assertEquals(digester.size(), stax.size());
+        for (int i = 0; i < stax.size(); i++) {
+            LogEntry expected = digester.get(i);
+            LogEntry actual = stax.get(i);
+            assertEquals(expected.getRevision(), actual.getRevision());
+            assertEquals(expected.getUser(), actual.getUser());
+            assertEquals(expected.getDate(), actual.getDate());
+            assertEquals(expected.getMsg(), actual.getMsg());
+            assertEquals(expected.getActionsCount(), actual.getActionsCount());
+            for (int j = 0; j < actual.getActionsCount(); j++) {
+                Action expectedAction = expected.getActions().get(j);
+                Action actualAction = actual.getActions().get(j);
+                assertEquals(expectedAction.getType(), actualAction.getType());
+                assertEquals(expectedAction.getObjectGuid(), actualAction.getObjectGuid());
+                assertEquals(expectedAction.getObjectType(), actualAction.getObjectType());
+                assertEquals(expectedAction.getObjectTypeGuid(), actualAction.getObjectTypeGuid());
+                assertEquals(expectedAction.getObjectName(), actualAction.getObjectName());
+                assertEquals(expectedAction.getObjectDescription(), actualAction.getObjectDescription());
+            }
+        }
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        assumeTrue("set " + GXSChangeLogParserBenchmarkTest.class.getName() + ".run to measure", RUN);
+
+        File file = writeLog(BENCHMARK_ENTRIES);
+
+        // warm both parsers up
+        GXSChangeLogParser.parse(file);
+        parseWithDigester(file);
+
+        System.out.println(String.format("Parsing %d entries (%d KB)", BENCHMARK_ENTRIES, file.length() / 1024));
+        System.out.println(measure("StAX", GXSChangeLogParser::parse, file));
+        System.out.println(measure("Digester", GXSChangeLogParserBenchmarkTest::parseWithDigester, file));
+    }
+
+    /**
+     * @return the fastest time and the fewest bytes allocated by the current
+     * thread over a few rounds
+     */
+    private static String measure(String name, Parser parser, File file) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long fastest = Long.MAX_VALUE;
+        long allocated = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startBytes = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            parser.parse(file);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - startBytes);
+        }
+        return String.format("%s: %d ms, %d MB allocated", name, fastest / 1000000, allocated / (1024 * 1024));
+    }
+
+    private File writeLog(int entries) throws IOException {
+        StringBuilder log = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><log>");
+        String date = DateUtils.toUTCstring(new Date(1772360130000L));
+        for (int revision = entries; revision > 0; revision--) {
+            log.append("<logentry revision=\"").append(revision).append("\">")
+                    .append("<author>local\\jdoe</author>")
+                    .append("<date>").append(date).append("</date>")
+                    .append("<actions>");
+            for (int i = 0; i < ACTIONS_PER_ENTRY; i++) {
+                log.append("<action type=\"Modified\">")
+                        .append("<objectGuid>c9584656-94b6-4ccd-890f-").append(String.format("%012d", revision * 100 + i)).append("</objectGuid>")
+                        .append("<objectType>Procedure</objectType>")
+                        .append("<objectTypeGuid>84a12160-f59b-4ad7-a683-ea4481ac23e9</objectTypeGuid>")
+                        .append("<objectName>Proc").append(i).append("</objectName>")
+                        .append("<objectDescription>Procedure ").append(i).append("</objectDescription>")
+                        .append("</action>");
+            }
+            log.append("</actions>")
+                    .append("<msg>Change ").append(revision).append("</msg>")
+                    .append("</logentry>\n");
+        }
+        log.append("</log>");
+
+        File file = folder.newFile("changelog.xml");
+        Files.write(file.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * The Digester rules used before the StAX parser.
+     */
+    private static List<LogEntry> parseWithDigester(File file) throws Exception {
+        ArrayList<LogEntry> logs = new ArrayList<>();
+
+        Digester digester = new Digester();
+        digester.setXIncludeAware(false);
+        digester.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        digester.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        digester.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        digester.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        digester.push(logs);
+
+        digester.addObjectCreate("*/logentry", LogEntry.class);
+        digester.addSetProperties("*/logentry");
+        digester.addBeanPropertySetter("*/logentry/author", "user");
+        digester.addCallMethod("*/logentry/date", "setDateFromUTCDate", 0);
+        digester.addBeanPropertySetter("*/logentry/msg");
+        digester.addSetNext("*/logentry", "add");
+
+        digester.addObjectCreate("*/logentry/actions/action", Action.class);
+        digester.addSetProperties("*/logentry/actions/action");
+        digester.addBeanPropertySetter("*/logentry/actions/action/objectGuid");
+        digester.addBeanPropertySetter("*/logentry/actions/action/objectType");
+        digester.addBeanPropertySetter("*/logentry/actions/action/objectTypeGuid");
+        digester.addBeanPropertySetter("*/logentry/actions/action/objectName");
+        digester.addBeanPropertySetter("*/logentry/actions/action/objectDescription");
+        digester.addSetNext("*/logentry/actions/action", "addAction");
+
+        try (InputStream stream = new FileInputStream(file)) {
+            digester.parse(new InputSource(stream));
+        }
+        logs.forEach(LogEntry::finish);
+        return logs;
+    }
+}
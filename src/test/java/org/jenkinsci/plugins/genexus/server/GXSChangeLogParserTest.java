@@ -0,0 +1,246 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.scm.EditType;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import org.jenkinsci.plugins.genexus.server.GXSChangeLogSet.Action;
+import org.jenkinsci.plugins.genexus.server.GXSChangeLogSet.LogEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSChangeLogParserTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final Date DATE = new Date(1772360130000L);
+
+    private static final String LOG = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<log>"
+            + "<logentry revision=\"42\">"
+            + "<author>local\\jdoe</author>"
+            + "<date>" + DateUtils.toUTCstring(DATE) + "</date>"
+            + "<actions>"
+            + "<action type=\"Modified\">"
+            + "<objectGuid>c9584656-94b6-4ccd-890f-332d11fc2c25</objectGuid>"
+            + "<objectType>Procedure</objectType>"
+            + "<objectTypeGuid>84a12160-f59b-4ad7-a683-ea4481ac23e9</objectTypeGuid>"
+            + "<objectName>ProcB</objectName>"
+            + "<objectDescription>Proc B</objectDescription>"
+            + "</action>"
+            + "<action type=\"Inserted\">"
+            + "<objectGuid>0b3f2fa1-4e1c-4f36-9f0c-9d6ac2d0d6b4</objectGuid>"
+            + "<objectType>Transaction</objectType>"
+            + "<objectTypeGuid>1db606f2-af09-4cf9-a3b5-b481519d28f6</objectTypeGuid>"
+            + "<objectName>Customer</objectName>"
+            + "<objectDescription>Customer</objectDescription>"
+            + "</action>"
+            + "</actions>"
+            + "<msg> Fix customer validation </msg>"
+            + "</logentry>"
+            + "<logentry revision=\"41\">"
+            + "<author>local\\jdoe</author>"
+            + "<date>" + DateUtils.toUTCstring(new Date(DATE.getTime() - 3600000)) + "</date>"
+            + "<actions/>"
+            + "<msg></msg>"
+            + "</logentry>"
+            + "</log>";
+
+    @Test
+    public void testParse() throws Exception {
+        List<LogEntry> logs = parse(LOG);
+
+        assertEquals(2, logs.size());
+
+        LogEntry entry = logs.get(0);
+        assertEquals(42, entry.getRevision());
+        assertEquals("Fix customer validation", entry.getMsg());
+        assertEquals(DATE, entry.getDate());
+        assertEquals(2, entry.getActionsCount());
+
+        // actions are sorted by name
+        Action action = entry.getActions().get(0);
+        assertEquals("Customer", action.getObjectName());
+        assertEquals("Transaction", action.getObjectType());
+        assertEquals("0b3f2fa1-4e1c-4f36-9f0c-9d6ac2d0d6b4", action.getObjectGuid());
+        assertEquals("1db606f2-af09-4cf9-a3b5-b481519d28f6", action.getObjectTypeGuid());
+        assertEquals(EditType.ADD, action.getEditType());
+        assertEquals(entry, action.getLogEntry());
+        assertEquals(EditType.EDIT, entry.getActions().get(1).getEditType());
+
+        assertEquals(41, logs.get(1).getRevision());
+        assertEquals(0, logs.get(1).getActionsCount());
+    }
+
+    @Test
+    public void testDoctypeIsRejected() {
+        String log = "<?xml version=\"1.0\"?>"
+                + "<!DOCTYPE log [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>"
+                + "<log><logentry revision=\"1\"><msg>&xxe;</msg></logentry></log>";
+
+        assertThrows(IOException.class, () -> parse(log));
+    }
+
+    @Test
+    public void testDoctypeWithoutEntitiesIsRejected() throws Exception {
+        // with DTD support off this parses fine, only the explicit check rejects it
+        String log = LOG.replace("<log>", "<!DOCTYPE log [<!ELEMENT log ANY>]><log>");
+
+        assertThrows(IOException.class, () -> parse(log));
+
+        File file = folder.newFile("doctype.xml");
+        Files.write(file.toPath(), log.getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> GXSChangeLogParser.countEntries(file));
+    }
+
+    @Test
+    public void testCountEntries() throws Exception {
+        File file = writeLargeLog(250);
+
+        List<Long> pageOffsets = new ArrayList<>();
+        assertEquals(250, GXSChangeLogParser.countEntries(file, 100, pageOffsets));
+        assertEquals(3, pageOffsets.size());
+        assertEquals(250, GXSChangeLogParser.countEntries(file));
+    }
+
+    @Test
+    public void testCountEntriesNotDescending() throws Exception {
+        File file = folder.newFile("changelog.xml");
+        Files.write(file.toPath(), ("<log>"
+                + "<logentry revision=\"1\"><msg>a</msg></logentry>"
+                + "<logentry revision=\"2\"><msg>b</msg></logentry>"
+                + "</log>").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(-1, GXSChangeLogParser.countEntries(file));
+    }
+
+    @Test
+    public void testCountEntriesWithoutReliableOffsets() throws Exception {
+        File file = folder.newFile("changelog.xml");
+        Files.write(file.toPath(), ("<log>"
+                + "<!-- <logentry revision=\"9\"> -->"
+                + "<logentry revision=\"2\"><msg>a</msg></logentry>"
+                + "<logentry revision=\"1\"><msg>b</msg></logentry>"
+                + "</log>").getBytes(StandardCharsets.UTF_8));
+
+        List<Long> pageOffsets = new ArrayList<>();
+        assertEquals(2, GXSChangeLogParser.countEntries(file, 1, pageOffsets));
+        assertTrue(pageOffsets.isEmpty());
+    }
+
+    @Test
+    public void testParsePage() throws Exception {
+        File file = writeLargeLog(250);
+        List<Long> pageOffsets = new ArrayList<>();
+        GXSChangeLogParser.countEntries(file, 100, pageOffsets);
+
+        for (int page = 0; page < 3; page++) {
+            List<LogEntry> byIndex = GXSChangeLogParser.parsePage(file, page * 100, 100);
+            List<LogEntry> byOffset = GXSChangeLogParser.parsePage(file, pageOffsets.get(page), 100);
+
+            int expectedSize = page < 2 ? 100 : 50;
+            assertEquals(expectedSize, byIndex.size());
+            assertEquals(expectedSize, byOffset.size());
+            for (int i = 0; i < expectedSize; i++) {
+                int revision = 250 - page * 100 - i;
+                assertEquals(revision, byIndex.get(i).getRevision());
+                assertEquals(revision, byOffset.get(i).getRevision());
+                assertEquals("Change \u00f1 " + revision, byOffset.get(i).getMsg());
+            }
+        }
+    }
+
+    @Test
+    public void testLazyIteration() throws Exception {
+        File file = writeLargeLog(250);
+        List<Long> pageOffsets = new ArrayList<>();
+        int size = GXSChangeLogParser.countEntries(file, GXSChangeLogSet.PAGE_SIZE, pageOffsets);
+
+        GXSChangeLogSet changeSet = new GXSChangeLogSet(null, null, file, size, pageOffsets);
+
+        assertEquals(250, changeSet.getLogs().size());
+        int expected = 250;
+        for (Iterator<LogEntry> it = changeSet.iterator(); it.hasNext();) {
+            LogEntry entry = it.next();
+            assertEquals(expected--, entry.getRevision());
+            assertEquals(changeSet, entry.getParent());
+        }
+        assertEquals(0, expected);
+        // random access goes back to an earlier page
+        assertEquals(250, changeSet.getLogs().get(0).getRevision());
+    }
+
+    /**
+     * Writes a changelog with revisions from {@code count} down to 1, where
+     * every tenth revision is repeated.
+     */
+    private File writeLargeLog(int count) throws IOException {
+        StringBuilder log = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><log>");
+        for (int revision = count; revision > 0; revision--) {
+            String entry = "<logentry revision=\"" + revision + "\">"
+                    + "<author>local\\jdoe</author>"
+                    + "<date>" + DateUtils.toUTCstring(DATE) + "</date>"
+                    + "<actions/>"
+                    + "<msg>Change \u00f1 " + revision + "</msg>"
+                    + "</logentry>\n";
+            log.append(entry);
+            if (revision % 10 == 0) {
+                log.append(entry);
+            }
+        }
+        log.append("</log>");
+
+        File file = folder.newFile("changelog.xml");
+        Files.write(file.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<LogEntry> parse(String log) throws IOException {
+        try (InputStream stream = new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8))) {
+            return GXSChangeLogParser.parse(stream);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSCircuitBreakerTest {
+
+    private static final long INITIAL_BACKOFF = TimeUnit.SECONDS.toMillis(GXSCircuitBreaker.INITIAL_BACKOFF_SECONDS);
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final GXSCircuitBreaker breaker = new GXSCircuitBreaker("http://localhost/genexusserver", now::get);
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.allowRequest());
+            breaker.recordFailure(new IOException("failure " + i));
+        }
+    }
+
+    @Test
+    public void testStaysClosedBelowThreshold() {
+        failTimes(GXSCircuitBreaker.FAILURE_THRESHOLD - 1);
+
+        assertEquals(GXSCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertNull(breaker.getRetryAt());
+    }
+
+    @Test
+    public void testSuccessResetsFailures() {
+        failTimes(GXSCircuitBreaker.FAILURE_THRESHOLD - 1);
+        breaker.recordSuccess();
+        failTimes(GXSCircuitBreaker.FAILURE_THRESHOLD - 1);
+
+        assertEquals(GXSCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testOpensAtThreshold() {
+        failTimes(GXSCircuitBreaker.FAILURE_THRESHOLD);
+
+        assertEquals(GXSCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(now.get() + INITIAL_BACKOFF, breaker.getRetryAt().getTime());
+        assertFalse(breaker.allowRequest());
+
+        now.addAndGet(INITIAL_BACKOFF - 1);
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void testHalfOpenLetsOneProbeThrough() {
+        failTimes(GXSCircuitBreaker.FAILURE_THRESHOLD);
+        now.addAndGet(INITIAL_BACKOFF);
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(GXSCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        breaker.cancelProbe();
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void testSuccessfulProbeCloses() {
+        failTimes(GXSCircuitBreaker.FAILURE_THRESHOLD);
+        now.addAndGet(INITIAL_BACKOFF);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordSuccess();
+
+        assertEquals(GXSCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getConsecutiveFailures());
+        assertNull(breaker.getLastError());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void testFailedProbeReopensWithLongerBackoff() {
+        failTimes(GXSCircuitBreaker.FAILURE_THRESHOLD);
+        now.addAndGet(INITIAL_BACKOFF);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure(new IOException("still down"));
+
+        assertEquals(GXSCircuitBreaker.State.OPEN, breaker.getState());
+        long expected = Math.min(2 * INITIAL_BACKOFF, TimeUnit.SECONDS.toMillis(GXSCircuitBreaker.MAX_BACKOFF_SECONDS));
+        assertEquals(now.get() + expected, breaker.getRetryAt().getTime());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void testCallRecordsOutcome() throws Exception {
+        for (int i = 0; i < GXSCircuitBreaker.FAILURE_THRESHOLD; i++) {
+            try {
+                breaker.call(() -> {
+                    throw new IOException("down");
+                });
+                fail("expected the call to fail");
+            } catch (IOException ex) {
+                assertEquals("down", ex.getMessage());
+            }
+        }
+
+        try {
+            breaker.call(() -> "not called");
+            fail("expected the circuit to be open");
+        } catch (GXSCircuitOpenException ex) {
+            // expected
+        }
+
+        now.addAndGet(INITIAL_BACKOFF);
+        assertEquals("up", breaker.call(() -> "up"));
+        assertTrue(breaker.isClosed());
+    }
+}
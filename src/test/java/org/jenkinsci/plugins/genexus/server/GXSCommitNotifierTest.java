@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import com.gargoylesoftware.htmlunit.HttpMethod;
+import com.gargoylesoftware.htmlunit.Page;
+import com.gargoylesoftware.htmlunit.WebRequest;
+import hudson.model.FreeStyleProject;
+import hudson.util.Secret;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSCommitNotifierTest {
+
+    private static final String SERVER_URL = "https://gxserver.example.com/v18";
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testNotificationSchedulesMatchingJobs() throws Exception {
+        FreeStyleProject matching = createProject("KB1", "secret");
+        FreeStyleProject otherKb = createProject("KB2", "secret");
+        FreeStyleProject noToken = createProject("KB1", "");
+
+        Page page = notifyCommit("KB1", "42", "secret");
+
+        assertEquals(200, page.getWebResponse().getStatusCode());
+        assertTrue(page.getWebResponse().getContentAsString().contains(matching.getFullName()));
+        assertNotNull(jenkins.jenkins.getQueue().getItem(matching));
+        assertNull(jenkins.jenkins.getQueue().getItem(otherKb));
+        assertNull(jenkins.jenkins.getQueue().getItem(noToken));
+    }
+
+    @Test
+    public void testNotificationWithWrongTokenIsIgnored() throws Exception {
+        FreeStyleProject project = createProject("KB1", "secret");
+
+        Page page = notifyCommit("KB1", "42", "not-the-secret");
+
+        assertEquals(200, page.getWebResponse().getStatusCode());
+        assertNull(jenkins.jenkins.getQueue().getItem(project));
+    }
+
+    @Test
+    public void testServerURLsAreNormalized() throws Exception {
+        FreeStyleProject trailingSlash = createProject(SERVER_URL + "/", "KB1", "secret");
+        FreeStyleProject defaultServer = createProject("", "KB1", "secret");
+
+        notifyCommit(SERVER_URL + "//", "KB1", "42", "secret");
+        assertNotNull(jenkins.jenkins.getQueue().getItem(trailingSlash));
+        assertNull(jenkins.jenkins.getQueue().getItem(defaultServer));
+
+        notifyCommit(GeneXusServerSCM.DescriptorImpl.DEFAULT_SERVER_URL + "/", "KB1", "42", "secret");
+        assertNotNull(jenkins.jenkins.getQueue().getItem(defaultServer));
+    }
+
+    @Test
+    public void testCauseWithoutRevision() throws Exception {
+        FreeStyleProject project = createProject("KB1", "secret");
+
+        notifyCommit("KB1", "", "secret");
+
+        GXSCommitCause cause = jenkins.jenkins.getQueue().getItem(project).getCauses().stream()
+                .filter(GXSCommitCause.class::isInstance)
+                .map(GXSCommitCause.class::cast)
+                .findFirst()
+                .orElse(null);
+        assertNotNull(cause);
+        assertEquals("Started by GeneXus Server commit", cause.getShortDescription());
+        assertEquals("Started by GeneXus Server commit (revision 42)", new GXSCommitCause("42").getShortDescription());
+    }
+
+    @Test
+    public void testNotificationWithoutKbIsRejected() throws Exception {
+        Page page = notifyCommit("", "42", "secret");
+        assertEquals(400, page.getWebResponse().getStatusCode());
+    }
+
+    private FreeStyleProject createProject(String kbName, String token) throws Exception {
+        return createProject(SERVER_URL, kbName, token);
+    }
+
+    private FreeStyleProject createProject(String serverURL, String kbName, String token) throws Exception {
+        FreeStyleProject project = jenkins.createFreeStyleProject();
+        project.setScm(new GeneXusServerSCM("", "", "", serverURL, "", kbName, "", "", "", "", "", "", true));
+        project.addTrigger(new GXSCommitTrigger(Secret.fromString(token)));
+
+        // keep scheduled builds in the queue so that the test can find them
+        project.setQuietPeriod(600);
+        return project;
+    }
+
+    private Page notifyCommit(String kbName, String revision, String token) throws Exception {
+        return notifyCommit(SERVER_URL, kbName, revision, token);
+    }
+
+    private Page notifyCommit(String serverURL, String kbName, String revision, String token) throws Exception {
+        String query = "serverURL=" + encode(serverURL)
+                + "&kbName=" + encode(kbName)
+                + "&revision=" + encode(revision)
+                + "&token=" + encode(token);
+
+        URL url = new URL(jenkins.getURL(), GXSCommitNotifier.URL_NAME + "/notifyCommit?" + query);
+        JenkinsRule.WebClient webClient = jenkins.createWebClient();
+        webClient.getOptions().setThrowExceptionOnFailingStatusCode(false);
+        return webClient.getPage(new WebRequest(url, HttpMethod.POST));
+    }
+
+    private static String encode(String value) throws Exception {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+    }
+}
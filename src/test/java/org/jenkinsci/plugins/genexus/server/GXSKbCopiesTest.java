@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSKbCopiesTest {
+
+    private static GXSKbCopies.Entry entry(String path, long lastUsed, long size) {
+        GXSKbCopies.Entry entry = new GXSKbCopies.Entry();
+        entry.node = "";
+        entry.path = path;
+        entry.lastUsed = lastUsed;
+        entry.size = size;
+        return entry;
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedFirst() {
+        GXSKbCopies.Entry a = entry("a", 300, 40);
+        GXSKbCopies.Entry b = entry("b", 100, 40);
+        GXSKbCopies.Entry c = entry("c", 200, 40);
+
+        List<GXSKbCopies.Entry> evicted = GXSKbCopies.selectForEviction(Arrays.asList(a, b, c), 50, e -> false);
+
+        assertEquals(Arrays.asList(b, c), evicted);
+    }
+
+    @Test
+    public void evictsNothingWithinBudget() {
+        List<GXSKbCopies.Entry> copies = Arrays.asList(entry("a", 100, 40), entry("b", 200, 40));
+
+        assertTrue(GXSKbCopies.selectForEviction(copies, 80, e -> false).isEmpty());
+    }
+
+    @Test
+    public void skipsBusyCopies() {
+        GXSKbCopies.Entry a = entry("a", 100, 40);
+        GXSKbCopies.Entry b = entry("b", 200, 40);
+        GXSKbCopies.Entry c = entry("c", 300, 40);
+
+        List<GXSKbCopies.Entry> evicted = GXSKbCopies.selectForEviction(Arrays.asList(a, b, c), 50, e -> e == a);
+
+        assertEquals(Arrays.asList(b, c), evicted);
+    }
+
+    @Test
+    public void stopsWhenOnlyBusyCopiesRemain() {
+        GXSKbCopies.Entry a = entry("a", 100, 40);
+
+        assertEquals(Collections.emptyList(), GXSKbCopies.selectForEviction(Arrays.asList(a), 0, e -> true));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.FilePath;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.TaskListener;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSKbPoolTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testBuildKeepsItsCopy() throws Exception {
+        FreeStyleBuild build = jenkins.buildAndAssertSuccess(jenkins.createFreeStyleProject());
+        GXSKbPool pool = GXSKbPool.get();
+
+        FilePath path = pool.acquire(build, jenkins.jenkins, "same-copy", TaskListener.NULL);
+        try {
+            assertEquals(path, pool.acquire(build, jenkins.jenkins, "same-copy", TaskListener.NULL));
+            assertEquals(path.getRemote(), pool.getLeasedPath(build, "same-copy"));
+            assertNull(pool.getLeasedPath(build, "other-copy"));
+        } finally {
+            pool.release(build);
+        }
+        assertNull(pool.getLeasedPath(build, "same-copy"));
+    }
+
+    @Test
+    public void testBuildsWaitForReleasedCopy() throws Exception {
+        FreeStyleProject project = jenkins.createFreeStyleProject();
+        FreeStyleBuild first = jenkins.buildAndAssertSuccess(project);
+        FreeStyleBuild second = jenkins.buildAndAssertSuccess(project);
+        GXSKbPool pool = GXSKbPool.get();
+
+        FilePath path = pool.acquire(first, jenkins.jenkins, "waiting", TaskListener.NULL);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<FilePath> waiting = executor.submit(() -> pool.acquire(second, jenkins.jenkins, "waiting", TaskListener.NULL));
+            Thread.sleep(500);
+            assertFalse(waiting.isDone());
+
+            pool.release(first);
+            // the released copy is reused
+            assertEquals(path, waiting.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+            pool.release(first);
+            pool.release(second);
+        }
+    }
+
+    @Test
+    public void testKeysGetSeparateCopies() throws Exception {
+        FreeStyleBuild build = jenkins.buildAndAssertSuccess(jenkins.createFreeStyleProject());
+        GXSKbPool pool = GXSKbPool.get();
+
+        try {
+            FilePath first = pool.acquire(build, jenkins.jenkins, "key-1", TaskListener.NULL);
+            FilePath second = pool.acquire(build, jenkins.jenkins, "key-2", TaskListener.NULL);
+            assertNotEquals(first.getParent(), second.getParent());
+        } finally {
+            pool.release(build);
+        }
+    }
+
+    @Test
+    public void testLeasesAreSaved() throws Exception {
+        FreeStyleBuild build = jenkins.buildAndAssertSuccess(jenkins.createFreeStyleProject());
+        GXSKbPool pool = GXSKbPool.get();
+        File file = new File(jenkins.jenkins.getRootDir(), "gxserver-kb-pool.json");
+
+        try {
+            pool.acquire(build, jenkins.jenkins, "saved", TaskListener.NULL);
+            assertTrue(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).contains(build.getExternalizableId()));
+        } finally {
+            pool.release(build);
+        }
+        assertFalse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).contains(build.getExternalizableId()));
+    }
+}
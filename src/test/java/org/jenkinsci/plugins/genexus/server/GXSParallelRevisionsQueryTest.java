@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSParallelRevisionsQueryTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void testSplitCoversRangeNewestFirst() {
+        Date from = new Date(1_600_000_000_000L);
+        Date to = new Date(from.getTime() + 10 * HOUR + 12_345);
+
+        List<Date[]> ranges = GXSParallelRevisionsQuery.split(from, to, 4);
+
+        assertTrue(ranges.size() > 1);
+        assertEquals(to, ranges.get(0)[1]);
+        assertEquals(from, ranges.get(ranges.size() - 1)[0]);
+        for (int i = 0; i < ranges.size(); i++) {
+            Date[] range = ranges.get(i);
+            assertFalse(range[1].before(range[0]));
+            if (i > 0) {
+                // consecutive whole seconds, no overlap and no gap
+                assertEquals(range[1].getTime() + 1000, ranges.get(i - 1)[0].getTime());
+            }
+        }
+    }
+
+    @Test
+    public void testSplitKeepsMinimumLength() {
+        Date from = new Date(1_600_000_000_000L);
+        Date to = new Date(from.getTime() + 3 * HOUR - 1000);
+
+        List<Date[]> ranges = GXSParallelRevisionsQuery.split(from, to, 100);
+
+        assertEquals(3, ranges.size());
+        for (Date[] range : ranges) {
+            assertEquals(HOUR - 1000, range[1].getTime() - range[0].getTime());
+        }
+    }
+
+    @Test
+    public void testMergeKeepsDescendingOrder() {
+        List<Iterator<GXSHistoryRecord>> ranges = Arrays.asList(
+                records(9, 8, 7),
+                records(),
+                records(6, 5),
+                records(4, 3, 2, 1));
+
+        assertEquals(Arrays.asList(9, 8, 7, 6, 5, 4, 3, 2, 1), ids(new GXSParallelRevisionsQuery.MergingIterator(ranges.iterator())));
+    }
+
+    @Test
+    public void testMergeSkipsDuplicates() {
+        List<Iterator<GXSHistoryRecord>> ranges = Arrays.asList(
+                records(9, 8, 7),
+                records(7, 6),
+                records(6, 5, 5, 4));
+
+        assertEquals(Arrays.asList(9, 8, 7, 6, 5, 4), ids(new GXSParallelRevisionsQuery.MergingIterator(ranges.iterator())));
+    }
+
+    @Test
+    public void testMergeOfNothing() {
+        List<Iterator<GXSHistoryRecord>> ranges = Collections.emptyList();
+
+        assertFalse(new GXSParallelRevisionsQuery.MergingIterator(ranges.iterator()).hasNext());
+    }
+
+    private static Iterator<GXSHistoryRecord> records(int... ids) {
+        List<GXSHistoryRecord> records = new ArrayList<>();
+        for (int id : ids) {
+            GXSHistoryRecord record = new GXSHistoryRecord();
+            record.id = id;
+            records.add(record);
+        }
+        return records.iterator();
+    }
+
+    private static List<Integer> ids(Iterator<GXSHistoryRecord> records) {
+        List<Integer> ids = new ArrayList<>();
+        records.forEachRemaining(record -> ids.add(record.id));
+        return ids;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSPollingFilterTest {
+
+    @Test
+    public void testEmptyFilterIncludesEverything() {
+        GXSPollingFilter filter = new GXSPollingFilter("", null, " ", null, "\n", null);
+
+        assertTrue(filter.isEmpty());
+        assertTrue(filter.isAuthorIncluded("anyone"));
+        assertTrue(filter.isAuthorIncluded(null));
+        assertTrue(filter.isObjectIncluded("Procedure", "Anything"));
+    }
+
+    @Test
+    public void testIncludedObjectTypes() {
+        GXSPollingFilter filter = new GXSPollingFilter("Procedure, Transaction", null, null, null, null, null);
+
+        assertFalse(filter.isEmpty());
+        assertTrue(filter.isObjectIncluded("Procedure", "Sum"));
+        assertTrue(filter.isObjectIncluded("transaction", "Customer"));
+        assertFalse(filter.isObjectIncluded("WebPanel", "Home"));
+        assertFalse(filter.isObjectIncluded(null, "Home"));
+    }
+
+    @Test
+    public void testExcludeWinsOverInclude() {
+        GXSPollingFilter filter = new GXSPollingFilter(null, null, "Sales*", "*Test", null, null);
+
+        assertTrue(filter.isObjectIncluded("Procedure", "SalesReport"));
+        assertFalse(filter.isObjectIncluded("Procedure", "SalesReportTest"));
+        assertFalse(filter.isObjectIncluded("Procedure", "Purchases"));
+    }
+
+    @Test
+    public void testTypeAndNameMustBothMatch() {
+        GXSPollingFilter filter = new GXSPollingFilter("Procedure", "", "Calc?", "", "", "");
+
+        assertTrue(filter.isObjectIncluded("Procedure", "Calc1"));
+        assertFalse(filter.isObjectIncluded("Procedure", "Calc12"));
+        assertFalse(filter.isObjectIncluded("Transaction", "Calc1"));
+    }
+
+    @Test
+    public void testAuthors() {
+        GXSPollingFilter filter = new GXSPollingFilter(null, null, null, null, "DOMAIN\\*", "DOMAIN\\build*\r\nDOMAIN\\ci");
+
+        assertTrue(filter.isAuthorIncluded("domain\\alice"));
+        assertFalse(filter.isAuthorIncluded("DOMAIN\\buildbot"));
+        assertFalse(filter.isAuthorIncluded("DOMAIN\\ci"));
+        assertFalse(filter.isAuthorIncluded("OTHER\\alice"));
+    }
+
+    @Test
+    public void testExcludeOnly() {
+        GXSPollingFilter filter = new GXSPollingFilter(null, "Theme, Image", null, null, null, null);
+
+        assertTrue(filter.isObjectIncluded("Procedure", "Sum"));
+        assertFalse(filter.isObjectIncluded("Image", "Logo"));
+        assertFalse(filter.isObjectIncluded("theme", "Carmine"));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Date;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSRevisionIndexTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    private static GXSInfo info(long revision) {
+        return new GXSInfo("http://localhost/genexusserver", "KB", "", revision, new Date(revision * 1000));
+    }
+
+    @Test
+    public void testFindsClosestPreviousBuild() throws Exception {
+        FreeStyleProject project = jenkins.createFreeStyleProject();
+        FreeStyleBuild first = jenkins.buildAndAssertSuccess(project);
+        FreeStyleBuild second = jenkins.buildAndAssertSuccess(project);
+        FreeStyleBuild third = jenkins.buildAndAssertSuccess(project);
+        FreeStyleBuild fourth = jenkins.buildAndAssertSuccess(project);
+
+        assertNull(GXSRevisionIndex.findClosest(first));
+
+        GXSRevisionIndex.record(first, info(10));
+        GXSRevisionIndex.record(third, info(30));
+
+        assertEquals(10, GXSRevisionIndex.findClosest(first).revision);
+        assertEquals(10, GXSRevisionIndex.findClosest(second).revision);
+        assertEquals(30, GXSRevisionIndex.findClosest(third).revision);
+        assertEquals(30, GXSRevisionIndex.findClosest(fourth).revision);
+    }
+
+    @Test
+    public void testDeletedBuildIsForgotten() throws Exception {
+        FreeStyleProject project = jenkins.createFreeStyleProject();
+        FreeStyleBuild first = jenkins.buildAndAssertSuccess(project);
+        FreeStyleBuild second = jenkins.buildAndAssertSuccess(project);
+        FreeStyleBuild third = jenkins.buildAndAssertSuccess(project);
+
+        GXSRevisionIndex.record(first, info(10));
+        GXSRevisionIndex.record(second, info(20));
+        second.delete();
+
+        assertEquals(10, GXSRevisionIndex.findClosest(third).revision);
+    }
+
+    @Test
+    public void testIndexIsSaved() throws Exception {
+        FreeStyleProject project = jenkins.createFreeStyleProject();
+        FreeStyleBuild build = jenkins.buildAndAssertSuccess(project);
+
+        GXSRevisionIndex.record(build, info(4242));
+
+        File file = new File(project.getRootDir(), GXSRevisionIndex.INDEX_FILE_NAME);
+        assertTrue(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).contains("4242"));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSRevisionOutputScannerTest {
+
+    private static final String CHECKOUT_OUTPUT = String.join("\r\n",
+            "Build started 10/18/2026 10:12:03.",
+            "Project \"C:\\Program Files (x86)\\GeneXus\\GeneXus18\\TeamDev.msbuild\" on node 1 (Checkout target(s)).",
+            "Checkout:",
+            "  Creating Knowledge Base from http://gxserver/genexusserver (Sales, version Trunk)",
+            "  Getting revision 4711 of object 'Customer'",
+            "  Checked out revision 4721.",
+            "Done Building Project \"C:\\Program Files (x86)\\GeneXus\\GeneXus18\\TeamDev.msbuild\" (Checkout target(s)).",
+            "",
+            "Build succeeded.",
+            "");
+
+    private static final String UPDATE_OUTPUT = String.join("\r\n",
+            "Build started 10/18/2026 11:40:55.",
+            "Project \"C:\\Program Files (x86)\\GeneXus\\GeneXus18\\TeamDev.msbuild\" on node 1 (Update target(s)).",
+            "Update:",
+            "  Updating Knowledge Base from http://gxserver/genexusserver",
+            "  Updated object 'Invoice' to revision 4730",
+            "  Updated to revision #4733",
+            "Done Building Project \"C:\\Program Files (x86)\\GeneXus\\GeneXus18\\TeamDev.msbuild\" (Update target(s)).",
+            "",
+            "Build succeeded.",
+            "");
+
+    private static Integer scan(String output) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GXSRevisionOutputScanner scanner = new GXSRevisionOutputScanner(out, StandardCharsets.UTF_8);
+        scanner.write(output.getBytes(StandardCharsets.UTF_8));
+        scanner.finish();
+        assertEquals(output, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        return scanner.getRevision();
+    }
+
+    @Test
+    public void testCheckoutOutput() throws IOException {
+        assertEquals(Integer.valueOf(4721), scan(CHECKOUT_OUTPUT));
+    }
+
+    @Test
+    public void testUpdateOutput() throws IOException {
+        assertEquals(Integer.valueOf(4733), scan(UPDATE_OUTPUT));
+    }
+
+    @Test
+    public void testUpToDateOutput() throws IOException {
+        assertEquals(Integer.valueOf(4733), scan("Update:\n  At revision 4733.\n"));
+    }
+
+    @Test
+    public void testObjectLinesAreIgnored() throws IOException {
+        assertNull(scan("  Getting revision 4711 of object 'Customer'\n"
+                + "  Updated object 'Invoice' to revision 4730\n"
+                + "  Checked out revision 12 of 'Sales'\n"));
+    }
+
+    @Test
+    public void testLastMatchWins() throws IOException {
+        assertEquals(Integer.valueOf(20), scan("Updated to revision 10\nUpdated to revision 20\n"));
+    }
+
+    @Test
+    public void testLastLineWithoutNewline() throws IOException {
+        assertEquals(Integer.valueOf(7), scan("Build log\nChecked out revision 7"));
+    }
+
+    @Test
+    public void testNoRevision() throws IOException {
+        assertNull(scan("Build FAILED.\n"));
+    }
+
+    @Test
+    public void testCustomPattern() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GXSRevisionOutputScanner scanner = new GXSRevisionOutputScanner(out, StandardCharsets.UTF_8,
+                Pattern.compile("KB revision: (\\d+)"));
+        scanner.write("  KB revision: 99\n".getBytes(StandardCharsets.UTF_8));
+        scanner.finish();
+
+        assertEquals(Integer.valueOf(99), scanner.getRevision());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 GeneXus S.A..
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.genexus.server;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author jlr
+ */
+public class GXSWarmNodeDispatcherTest {
+
+    private static Map<String, Long> revisions() {
+        Map<String, Long> revisions = new HashMap<>();
+        revisions.put("agent1", 40L);
+        revisions.put("agent2", 42L);
+        revisions.put("agent3", 42L);
+        return revisions;
+    }
+
+    @Test
+    public void acceptsHighestRevisionFirst() {
+        assertEquals(new HashSet<>(Arrays.asList("agent2", "agent3")), GXSWarmNodeDispatcher.accept(revisions(), false));
+    }
+
+    @Test
+    public void acceptsAnyCopyLater() {
+        assertEquals(new HashSet<>(Arrays.asList("agent1", "agent2", "agent3")), GXSWarmNodeDispatcher.accept(revisions(), true));
+    }
+
+    @Test
+    public void acceptsNothingWithoutCopies() {
+        assertTrue(GXSWarmNodeDispatcher.accept(Collections.emptyMap(), false).isEmpty());
+    }
+}